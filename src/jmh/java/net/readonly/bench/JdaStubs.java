@@ -0,0 +1,67 @@
+package net.readonly.bench;
+
+import java.lang.reflect.Proxy;
+
+import net.dv8tion.jda.api.entities.Message;
+
+/**
+ * Lightweight stand-ins for JDA entities, so benchmarks don't need a gateway connection.
+ * <br>Only the methods benchmarks use are answered, everything else returns a default value.
+ */
+public final class JdaStubs {
+    private JdaStubs() { }
+
+    /**
+     * @param content The raw and display content of the message.
+     *
+     * @return A message that only knows its content.
+     */
+    public static Message message(String content) {
+        return (Message) Proxy.newProxyInstance(JdaStubs.class.getClassLoader(), new Class<?>[] { Message.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getContentRaw":
+                case "getContentDisplay":
+                case "getContentStripped":
+                case "toString":
+                    return content;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == void.class) {
+            return null;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,58 @@
+package net.readonly.core.command.argument;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.readonly.bench.JdaStubs;
+import net.readonly.core.command.NewContext;
+import net.readonly.core.command.ParsedMessage;
+import net.readonly.core.command.argument.split.SplitString;
+import net.readonly.core.modules.commands.i18n.I18nContext;
+
+/**
+ * The lenient number parsers, on plain, separated and suffixed numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsersBenchmark {
+    private static final Parser<Integer> LENIENT_INT = Parsers.lenientInt();
+    private static final Parser<Long> LENIENT_LONG = Parsers.lenientLong();
+
+    @Param({"1500", "1,500,000", "15k", "nope"})
+    public String input;
+
+    private NewContext context;
+    private SplitString[] tokens;
+
+    @Setup
+    public void setup() {
+        context = new NewContext(JdaStubs.message(input), new I18nContext(), input);
+        tokens = ParsedMessage.parse(input).tokens();
+    }
+
+    @Benchmark
+    public Optional<Integer> lenientInt() {
+        return LENIENT_INT.parse(context, new Arguments(tokens, 0));
+    }
+
+    @Benchmark
+    public Optional<Long> lenientLong() {
+        return LENIENT_LONG.parse(context, new Arguments(tokens, 0));
+    }
+}
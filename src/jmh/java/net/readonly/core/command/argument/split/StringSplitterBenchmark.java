@@ -0,0 +1,76 @@
+package net.readonly.core.command.argument.split;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Splitting command arguments with {@link StringSplitter}, against the regex split it replaced.
+ * <br>{@code split} only reads token lengths, like a command that doesn't use every argument,
+ * {@code splitAndRead} reads every value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringSplitterBenchmark {
+    private static final Pattern PATTERN = Pattern.compile("\\s+");
+
+    @Param({"1", "10", "200"})
+    public int tokens;
+
+    private final StringSplitter splitter = new StringSplitter();
+    private String input;
+
+    @Setup
+    public void setup() {
+        var builder = new StringBuilder();
+        for (int i = 0; i < tokens; i++) {
+            builder.append(i % 3 == 0 ? "  " : " ").append("argument").append(i);
+        }
+        input = builder.toString();
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        // What StringSplitter#split used to do.
+        String[] values = PATTERN.split(input);
+        int remove = values.length > 0 && values[0].isEmpty() ? 1 : 0;
+        String lookup = input;
+        for (int i = remove; i < values.length; i++) {
+            String value = values[i];
+            int startIdx = lookup.indexOf(value);
+            blackhole.consume(value);
+            blackhole.consume(lookup.substring(0, startIdx));
+            lookup = lookup.substring(startIdx + value.length());
+        }
+    }
+
+    @Benchmark
+    public void split(Blackhole blackhole) {
+        for (var string : splitter.split(input)) {
+            blackhole.consume(string.length());
+        }
+    }
+
+    @Benchmark
+    public void splitAndRead(Blackhole blackhole) {
+        for (var string : splitter.split(input)) {
+            blackhole.consume(string.getValue());
+        }
+    }
+}
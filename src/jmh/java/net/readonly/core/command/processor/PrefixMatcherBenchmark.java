@@ -0,0 +1,86 @@
+package net.readonly.core.command.processor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.readonly.bench.JdaStubs;
+import net.readonly.core.command.ParsedMessage;
+
+/**
+ * Prefix detection for a single message, as done before and after {@link PrefixMatcher}, plus the
+ * {@link ParsedMessage} split that {@link CommandProcessor#run} does for actual commands.
+ * <br>Run with the gc profiler (the default on {@code ./gradlew jmh}) to compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixMatcherBenchmark {
+    private static final String PREFIX = "--";
+    private static final long SELF_ID = 795463925040021504L;
+
+    @Param({
+            "lol did anyone see the game last night",
+            "--help ping",
+            "<@795463925040021504> help ping"
+    })
+    public String content;
+
+    private PrefixMatcher matcher;
+    private Message message;
+
+    @Setup
+    public void setup() {
+        matcher = new PrefixMatcher(PREFIX, SELF_ID);
+        message = JdaStubs.message(content);
+    }
+
+    @Benchmark
+    public String legacy() {
+        // What CommandProcessor#run used to do, up to finding the prefix.
+        final var lowerRawCmd = message.getContentRaw().toLowerCase();
+        String[] mentionPrefixes = {
+                "<@%s> ".formatted(String.valueOf(SELF_ID)),
+                "<@!%s> ".formatted(String.valueOf(SELF_ID))
+        };
+
+        String usedPrefix = null;
+        for (String mention : mentionPrefixes) {
+            if (lowerRawCmd.startsWith(mention)) {
+                usedPrefix = mention;
+            }
+        }
+
+        if (lowerRawCmd.startsWith(PREFIX)) {
+            usedPrefix = PREFIX;
+        }
+
+        return usedPrefix;
+    }
+
+    @Benchmark
+    public String matcher() {
+        return matcher.match(message.getContentRaw());
+    }
+
+    @Benchmark
+    public ParsedMessage matchAndParse() {
+        var raw = message.getContentRaw();
+        var usedPrefix = matcher.match(raw);
+        return usedPrefix == null ? null : ParsedMessage.parse(raw.substring(usedPrefix.length()));
+    }
+}
@@ -0,0 +1,42 @@
+package net.readonly.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The legacy argument splitting used by {@link net.readonly.core.modules.commands.base.Context Context}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+    @Param({
+            "ping",
+            "prefix set !!",
+            "reply set \"$(event.user.tag) 1.16+ is \\\"not\\\" out yet\" -silent -channel general"
+    })
+    public String content;
+
+    @Benchmark
+    public String[] advancedSplitArgs() {
+        return StringUtils.advancedSplitArgs(content, 0);
+    }
+
+    @Benchmark
+    public String[] splitArgs() {
+        return StringUtils.splitArgs(content, 2);
+    }
+}
@@ -0,0 +1,51 @@
+package net.readonly.utils.cmds;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.readonly.utils.StringUtils;
+
+/**
+ * Formatting a reply, as {@code sendLocalized} did before and after {@link FormatTemplate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatTemplateBenchmark {
+    @Param({"%1$s Prefix has been set to %2$s", "Roles (%1$,d)"})
+    public String format;
+
+    private FormatTemplate template;
+    private Object[] args;
+
+    @Setup
+    public void setup() {
+        template = FormatTemplate.compile(format);
+        args = format.contains(",d") ? new Object[] { 12345 } : new Object[] { ":heavy_check_mark: ", "--" };
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(StringUtils.getLocaleFromLanguage("en_US"), format, args);
+    }
+
+    @Benchmark
+    public String template() {
+        return template.format(Locale.US, args);
+    }
+}
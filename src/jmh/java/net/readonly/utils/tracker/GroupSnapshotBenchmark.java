@@ -0,0 +1,93 @@
+package net.readonly.utils.tracker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding, decoding and merging the command usage snapshots nodes push on every stats tick.
+ * <br>The format itself is covered by {@code GroupSnapshotTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupSnapshotBenchmark {
+    private static final int TRACKERS = 200;
+    private static final int NODES = 4;
+
+    private GroupSnapshot snapshot;
+    private byte[] bytes;
+    private List<GroupSnapshot> nodes;
+    private long now;
+
+    @Setup
+    public void setup() {
+        var random = new Random(42);
+        now = System.currentTimeMillis();
+        snapshot = snapshot(random, now);
+        bytes = snapshot.toBytes();
+        nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            // Nodes publish at different points of the tick.
+            nodes.add(snapshot(random, now - random.nextInt(30_000)));
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return snapshot.toBytes();
+    }
+
+    @Benchmark
+    public GroupSnapshot decode() throws IOException {
+        return GroupSnapshot.fromBytes(bytes);
+    }
+
+    @Benchmark
+    public GroupSnapshot merge() {
+        return GroupSnapshot.merge(nodes, now);
+    }
+
+    private static GroupSnapshot snapshot(Random random, long takenAt) {
+        var trackers = new ArrayList<TrackerSnapshot>(TRACKERS);
+        for (int i = 0; i < TRACKERS; i++) {
+            var children = new ArrayList<TrackerSnapshot>();
+            for (int c = 0, amount = random.nextInt(3); c < amount; c++) {
+                children.add(new TrackerSnapshot("sub" + c, random.nextInt(5), random.nextInt(100_000),
+                        values(random, 60), values(random, 60), values(random, 24), List.of()
+                ));
+            }
+
+            trackers.add(new TrackerSnapshot("command" + i, random.nextInt(5), random.nextInt(1_000_000),
+                    values(random, 60), values(random, 60), values(random, 24), children
+            ));
+        }
+
+        return new GroupSnapshot(takenAt, trackers);
+    }
+
+    private static long[] values(Random random, int length) {
+        var values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextInt(10) == 0 ? random.nextInt(1_000) : 0;
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,54 @@
+package net.readonly.utils.tracker;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Every command thread incrementing the same trackers, as the command stats do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class TrackerBenchmark {
+    private TrackerGroup<String> group;
+    private Tracker<String> tracker;
+    private Tracker<String> child;
+
+    @Setup
+    public void setup() {
+        group = new TrackerGroup<>(true);
+        tracker = group.tracker("help");
+        child = group.tracker("stats").child("vps");
+    }
+
+    @TearDown
+    public void tearDown() {
+        group.getExecutor().shutdownNow();
+    }
+
+    @Benchmark
+    public void increment() {
+        tracker.increment();
+    }
+
+    @Benchmark
+    public void incrementChild() {
+        child.increment();
+    }
+}
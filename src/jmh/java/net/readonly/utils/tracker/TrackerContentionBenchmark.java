@@ -0,0 +1,99 @@
+package net.readonly.utils.tracker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A command storm: 1 to 64 threads incrementing the same child tracker (and, through it, its parent).
+ * <br>The {@code atomic} benchmarks do what {@link Tracker#increment()} did before it was striped, two shared
+ * {@link AtomicLong}s per level, for comparison. Only meaningful on a machine with enough cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrackerContentionBenchmark {
+    private TrackerGroup<String> group;
+    private Tracker<String> child;
+    private final AtomicLong[] atomics = {new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()};
+
+    @Setup
+    public void setup() {
+        group = new TrackerGroup<>(true);
+        child = group.tracker("stats").child("vps");
+    }
+
+    @TearDown
+    public void tearDown() {
+        group.getExecutor().shutdownNow();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void tracker01() {
+        child.increment();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void tracker04() {
+        child.increment();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void tracker16() {
+        child.increment();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void tracker64() {
+        child.increment();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void atomic01() {
+        atomicIncrement();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void atomic04() {
+        atomicIncrement();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void atomic16() {
+        atomicIncrement();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void atomic64() {
+        atomicIncrement();
+    }
+
+    private void atomicIncrement() {
+        for (var atomic : atomics) {
+            atomic.addAndGet(1);
+        }
+    }
+}
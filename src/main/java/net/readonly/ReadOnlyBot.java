@@ -26,9 +26,7 @@ package net.readonly;
 
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,8 +59,6 @@ public class ReadOnlyBot {
 	private final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(3,
 			new ThreadFactoryBuilder().setNameFormat("ReadOnly Scheduled Executor Thread-%d").build());
 
-	private JDA jda;
-
 	private final ReadOnlyCore core;
 	
 	private void preStart() {
@@ -99,9 +95,6 @@ public class ReadOnlyBot {
 			.start();
 
 		BotData.configManager().save();
-		this.startExecutors();
-		
-		this.jda = core.jda();
 	}
 
 	public static void main(String[] args) {
@@ -122,30 +115,6 @@ public class ReadOnlyBot {
 		Prometheus.registerPostStartup();
 	}
 
-	private void startExecutors() {
-		log.info("Starting executors...");
-		// Handle posting statistics.
-		ScheduledExecutorService postExecutor = Executors.newSingleThreadScheduledExecutor(
-				new ThreadFactoryBuilder().setNameFormat("Statistics Posting").build());
-		postExecutor.scheduleAtFixedRate(() -> postStats(getJDA()), 10, 20, TimeUnit.MINUTES);
-	}
-
-	private void postStats(JDA jda) {
-		if (jda.getStatus() == JDA.Status.INITIALIZED || jda.getStatus() == JDA.Status.SHUTDOWN) {
-			return;
-		}
-
-		try (var jedis = BotData.getDefaultJedisPool().getResource()) {
-			var json = new JSONObject().put("guild_count", jda.getGuildCache().size())
-					.put("users", jda.getUserCache().size())
-					.put("gateway_ping", jda.getGatewayPing())
-					.put("status", jda.getStatus())
-					.toString();
-
-			jedis.hset("shardstats-" + jda.getSelfUser().getId(), String.valueOf(jda.getSelfUser().getId()), json);
-		}
-	}
-
 	public static ReadOnlyBot instance() {
 		return ReadOnlyBot.instance;
 	}
@@ -155,7 +124,7 @@ public class ReadOnlyBot {
 	}
 
 	public JDA getJDA() {
-		return jda;
+		return core.jda();
 	}
 	
 	public SelfUser getBotUser() {
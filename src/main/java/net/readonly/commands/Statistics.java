@@ -1,16 +1,17 @@
 package net.readonly.commands;
 
 import java.awt.Color;
-import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.Map;
 
-import org.json.JSONObject;
-
 import com.google.common.eventbus.Subscribe;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.readonly.commands.info.stats.CategoryStatsManager;
+import net.readonly.commands.info.stats.ClusterStats;
+import net.readonly.commands.info.stats.CommandStatsManager;
+import net.readonly.commands.info.stats.StatsSnapshots;
 import net.readonly.core.CommandRegistry;
 import net.readonly.core.modules.Module;
 import net.readonly.core.modules.commands.SimpleTreeCommand;
@@ -20,7 +21,7 @@ import net.readonly.core.modules.commands.base.Context;
 import net.readonly.core.modules.commands.help.HelpContent;
 import net.readonly.utils.EmbedUtil;
 import net.readonly.utils.StringUtils;
-import redis.clients.jedis.Jedis;
+import net.readonly.utils.tracker.DefaultInstance;
 
 @Module
 public class Statistics {
@@ -31,13 +32,45 @@ public class Statistics {
             @Override
             public HelpContent help() {
                 return new HelpContent.Builder()
-                        .setDescription("See the bot, usage or vps statistics.")
+                        .setDescription("See the bot, usage, category or vps statistics.")
                         .setUsage("stats <option>` - Returns statistical information.")
                         .addParameter("option", "What to check for. See subcommands")
                         .build();
             }
         });
         
+        statsCommand.addSubCommand("usage", new SubCommand() {
+            @Override
+            public String description() {
+                return "Most used commands in the last day, across all nodes.";
+            }
+
+            @Override
+            protected void call(Context ctx, String content) {
+                var embed = new EmbedBuilder().setTitle("Command Usage (Last 24 Hours)")
+                        .setThumbnail(ctx.getSelfUser().getAvatarUrl())
+                        .setColor(Color.PINK);
+
+                ctx.send(CommandStatsManager.fillEmbed(StatsSnapshots.clusterCommands(DefaultInstance.LAST_DAY, StatsSnapshots.USAGE_RANKING_SIZE), embed).build());
+            }
+        });
+
+        statsCommand.addSubCommand("category", new SubCommand() {
+            @Override
+            public String description() {
+                return "Most used command categories in the last day, on this node.";
+            }
+
+            @Override
+            protected void call(Context ctx, String content) {
+                var embed = new EmbedBuilder().setTitle("Category Usage (Last 24 Hours)")
+                        .setThumbnail(ctx.getSelfUser().getAvatarUrl())
+                        .setColor(Color.PINK);
+
+                ctx.send(CategoryStatsManager.fillEmbed(DefaultInstance.LAST_DAY, embed).build());
+            }
+        });
+
         statsCommand.addSubCommand("vps", new SubCommand() {
             @Override
             public String description() {
@@ -46,10 +79,7 @@ public class Statistics {
 
             @Override
             protected void call(Context ctx, String content) {
-                Map<String, String> nodeMap;
-                try (Jedis jedis = ctx.getJedisPool().getResource()) {
-                    nodeMap = jedis.hgetAll("node-stats-" + ctx.getJDA().getSelfUser().getId());
-                }
+                var nodeMap = ClusterStats.view().getNodes();
 
                 var embed = new EmbedBuilder().setTitle("Mantaro Node Statistics")
                         .setDescription("This shows the current status of the online nodes. " +
@@ -59,10 +89,8 @@ public class Statistics {
                         .setFooter("Available Nodes: " + nodeMap.size());
 
                 java.util.List<MessageEmbed.Field> fields = new LinkedList<>();
-                nodeMap.entrySet().stream().sorted(
-                        Comparator.comparingInt(e -> Integer.parseInt(e.getKey().split("-")[1]))
-                ).forEach(node -> {
-                    var nodeData = new JSONObject(node.getValue());
+                nodeMap.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(node -> {
+                    var nodeData = node.getValue();
                     fields.add(new MessageEmbed.Field("Node " + node.getKey(),
                             """
                                **Uptime**: %s
@@ -74,14 +102,14 @@ public class Statistics {
                                **User Cache**: %,d
                                **Machine Memory**: %s
                                """.formatted(
-                                    StringUtils.formatDuration(nodeData.getLong("uptime")),
-                                    nodeData.getLong("available_processors"),
-                                    "%.2f%%".formatted(nodeData.getDouble("cpu_usage")),
-                                    StringUtils.formatMemoryUsage(nodeData.getLong("used_memory"), nodeData.getLong("total_memory")),
-                                    nodeData.getLong("thread_count"),
-                                    nodeData.getLong("guild_count"),
-                                    nodeData.getLong("user_count"),
-                                    StringUtils.formatMemoryAmount(nodeData.getLong("machine_total_memory"))
+                                    StringUtils.formatDuration(nodeData.getUptime()),
+                                    nodeData.getAvailableProcessors(),
+                                    "%.2f%%".formatted(nodeData.getCpuUsage()),
+                                    StringUtils.formatMemoryUsage(nodeData.getUsedMemory(), nodeData.getTotalMemory()),
+                                    nodeData.getThreadCount(),
+                                    nodeData.getGuildCount(),
+                                    nodeData.getUserCount(),
+                                    StringUtils.formatMemoryAmount(nodeData.getMachineTotalMemory())
                             ), false
                     ));
                 });
@@ -1,38 +1,58 @@
 package net.readonly.commands.info.stats;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-
-import net.jodah.expiringmap.ExpirationPolicy;
-import net.jodah.expiringmap.ExpiringMap;
-
-public class CategoryStatsManager extends StatsManager<String> {
-
-    public static final ExpiringMap<String, AtomicInteger> DAY_CATS = ExpiringMap.builder()
-            .expiration(1, TimeUnit.DAYS)
-            .expirationPolicy(ExpirationPolicy.CREATED)
-            .build();
-    public static final ExpiringMap<String, AtomicInteger> HOUR_CATS = ExpiringMap.builder()
-            .expiration(1, TimeUnit.HOURS)
-            .expirationPolicy(ExpirationPolicy.CREATED)
-            .build();
-    public static final ExpiringMap<String, AtomicInteger> MINUTE_CATS = ExpiringMap.builder()
-            .expiration(1, TimeUnit.MINUTES)
-            .expirationPolicy(ExpirationPolicy.CREATED)
-            .build();
-    public static final Map<String, AtomicInteger> TOTAL_CATS = new HashMap<>();
-
-    public static void log(String cmd) {
-        if (cmd.isEmpty()) {
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.readonly.core.modules.commands.base.CommandCategory;
+import net.readonly.utils.tracker.Instance;
+import net.readonly.utils.tracker.Tracker;
+import net.readonly.utils.tracker.TrackerGroup;
+
+public class CategoryStatsManager extends StatsManager<CommandCategory> {
+    private static final TrackerGroup<CommandCategory> TRACKERS = new TrackerGroup<>();
+    // Categories are fixed, so their trackers are created upfront and looked up by ordinal.
+    private static final Tracker<?>[] BY_CATEGORY;
+
+    static {
+        var categories = CommandCategory.values();
+        BY_CATEGORY = new Tracker<?>[categories.length];
+        for (var category : categories) {
+            BY_CATEGORY[category.ordinal()] = TRACKERS.tracker(category);
+        }
+    }
+
+    public static void log(CommandCategory category) {
+        if (category == null) {
             return;
         }
 
-        TOTAL_CATS.computeIfAbsent(cmd, k -> new AtomicInteger(0)).incrementAndGet();
-        DAY_CATS.computeIfAbsent(cmd, k -> new AtomicInteger(0)).incrementAndGet();
-        HOUR_CATS.computeIfAbsent(cmd, k -> new AtomicInteger(0)).incrementAndGet();
-        MINUTE_CATS.computeIfAbsent(cmd, k -> new AtomicInteger(0)).incrementAndGet();
+        BY_CATEGORY[category.ordinal()].increment();
+    }
+
+    static TrackerGroup<CommandCategory> trackers() {
+        return TRACKERS;
+    }
+
+    public static EmbedBuilder fillEmbed(Instance instance, EmbedBuilder builder) {
+        var ranking = TRACKERS.ranking(instance, 12);
+        long total = ranking.total();
+
+        if (total == 0) {
+            builder.addField("Nothing Here.", "Just dust.", false);
+            return builder;
+        }
+
+        for (var entry : ranking.entries()) {
+            if (entry.getAmount() == 0) {
+                continue;
+            }
+
+            long percent = entry.getAmount() * 100 / total;
+            builder.addField(name(entry.getKey()), String.format("%s %d%% (%d)", bar(percent, 15), percent, entry.getAmount()), false);
+        }
+
+        return builder;
+    }
+
+    private static String name(CommandCategory category) {
+        return category.name().toLowerCase();
     }
-	
 }
@@ -0,0 +1,236 @@
+package net.readonly.commands.info.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+import net.readonly.BotData;
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Jedis;
+
+/**
+ * A local, versioned view of the stats of every node, kept up to date from redis without polling it.
+ * <br>{@link StatsPublisher} publishes every node's stats on a channel in the same batch it writes them in, and this
+ * class listens to that channel on a dedicated connection, applying each change to the view as it comes. The whole
+ * hash is only read once each time the subscription is (re)established, to catch up with whatever was missed.
+ * <br>Reading the view costs no redis round trips at all, no matter how many nodes there are.
+ */
+@Slf4j
+public class ClusterStats {
+    private static final long MAX_BACKOFF = TimeUnit.SECONDS.toMillis(30);
+
+    private static volatile View view = new View(0, Collections.emptyMap());
+    private static volatile boolean started;
+
+    /**
+     * Follows changes on a background thread. The whole cluster is read once subscribed.
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+
+        started = true;
+
+        var thread = new Thread(ClusterStats::listen, "Cluster-Stats");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the current view of the cluster, without the nodes that stopped publishing.
+     *
+     * @return The current view.
+     */
+    @Nonnull
+    public static View view() {
+        var current = view;
+        var staleAfter = StatsPublisher.staleAfter();
+        var now = System.currentTimeMillis();
+        for (var node : current.nodes.values()) {
+            if (now - node.getPublishedAt() > staleAfter) {
+                return prune(now, staleAfter);
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Applies the stats of a node to the view. Stats older than what the view already has for the node are ignored,
+     * as messages and full reads can race each other.
+     *
+     * @param node The node name.
+     * @param stats The stats of the node, or null if the node left.
+     */
+    static synchronized void apply(@Nonnull String node, @Nullable NodeStats stats) {
+        var current = view;
+        var existing = current.nodes.get(node);
+        if (stats != null && existing != null && existing.getPublishedAt() >= stats.getPublishedAt()) {
+            return;
+        }
+
+        if (stats == null && existing == null) {
+            return;
+        }
+
+        var nodes = new HashMap<>(current.nodes);
+        if (stats == null) {
+            nodes.remove(node);
+        } else {
+            nodes.put(node, stats);
+        }
+
+        view = new View(current.version + 1, nodes);
+    }
+
+    private static synchronized View prune(long now, long staleAfter) {
+        var current = view;
+        var nodes = new HashMap<>(current.nodes);
+        if (!nodes.values().removeIf(stats -> now - stats.getPublishedAt() > staleAfter)) {
+            return current;
+        }
+
+        view = new View(current.version + 1, nodes);
+        return view;
+    }
+
+    private static void resync() {
+        try {
+            var nodes = StatsPublisher.readAll();
+            for (var node : nodes.entrySet()) {
+                apply(node.getKey(), node.getValue());
+            }
+
+            // Nodes that left while we weren't listening.
+            for (var node : view.nodes.keySet()) {
+                if (!nodes.containsKey(node)) {
+                    apply(node, null);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Couldn't read cluster stats from redis", e);
+        }
+    }
+
+    private static void listen() {
+        var config = BotData.config();
+        var backoff = 1000L;
+        while (true) {
+            var subscribedAt = System.currentTimeMillis();
+            // Subscribing blocks the connection for good, so it doesn't come from the pool.
+            try (var jedis = new Jedis(config.getJedisPoolAddress(), config.getJedisPoolPort())) {
+                jedis.subscribe(new Listener(), channel());
+            } catch (Exception e) {
+                log.warn("Lost cluster stats subscription, retrying", e);
+            }
+
+            // Only back off further if the connection keeps dropping right away.
+            if (System.currentTimeMillis() - subscribedAt > MAX_BACKOFF) {
+                backoff = 1000L;
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            backoff = Math.min(backoff * 2, MAX_BACKOFF);
+        }
+    }
+
+    static byte[] channel() {
+        return ("node-stats-updates-" + BotData.config().getClientId()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes a change to publish on {@link #channel()}.
+     *
+     * @param node The node name.
+     * @param stats The stats of the node, or null if the node is leaving.
+     *
+     * @return The message.
+     */
+    static byte[] message(String node, @Nullable NodeStats stats) {
+        var bytes = new ByteArrayOutputStream(128);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeUTF(node);
+            if (stats != null) {
+                out.write(stats.toBytes());
+            }
+        } catch (IOException e) {
+            // Can't happen writing to memory.
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static class Listener extends BinaryJedisPubSub {
+        @Override
+        public void onSubscribe(byte[] channel, int subscribedChannels) {
+            // Anything published before this point was missed.
+            resync();
+        }
+
+        @Override
+        public void onMessage(byte[] channel, byte[] message) {
+            try {
+                var in = new DataInputStream(new ByteArrayInputStream(message));
+                var node = in.readUTF();
+                var remaining = in.readAllBytes();
+                apply(node, remaining.length == 0 ? null : NodeStats.fromBytes(remaining));
+            } catch (IOException e) {
+                log.warn("Skipping unreadable cluster stats update", e);
+            }
+        }
+    }
+
+    /**
+     * The stats of every node at some point. Each change to the view bumps its version.
+     */
+    public static final class View {
+        private final long version;
+        private final Map<String, NodeStats> nodes;
+        private final long guildCount;
+
+        private View(long version, Map<String, NodeStats> nodes) {
+            this.version = version;
+            this.nodes = Collections.unmodifiableMap(nodes);
+
+            long guilds = 0;
+            for (var stats : nodes.values()) {
+                guilds += stats.getGuildCount();
+            }
+
+            this.guildCount = guilds;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        @Nonnull
+        public Map<String, NodeStats> getNodes() {
+            return nodes;
+        }
+
+        public long getGuildCount() {
+            return guildCount;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.stream.Collectors;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.readonly.utils.tracker.Instance;
+import net.readonly.utils.tracker.Ranking;
 import net.readonly.utils.tracker.TrackerGroup;
 
 public class CommandStatsManager extends StatsManager<String> {
@@ -17,30 +18,38 @@ public class CommandStatsManager extends StatsManager<String> {
         TRACKERS.tracker(cmd).increment();
     }
 
+    static TrackerGroup<String> trackers() {
+        return TRACKERS;
+    }
+
     public static String resume(Instance instance) {
-        var total = TRACKERS.total(instance);
+        var ranking = TRACKERS.ranking(instance, 5);
+        var total = ranking.total();
 
-        return (total == 0) ? ("No Events Logged.") : ("Count: " + total + "\n" + TRACKERS.highest(instance, 5)
-                .map(tracker -> {
-                    int percent = Math.round((float) instance.amount(tracker) * 100 / total);
-                    return String.format("%s %d%% **%s** (%d)", bar(percent, 15), percent, tracker.getKey(), instance.amount(tracker));
+        return (total == 0) ? ("No Events Logged.") : ("Count: " + total + "\n" + ranking.entries().stream()
+                .map(entry -> {
+                    int percent = Math.round((float) entry.getAmount() * 100 / total);
+                    return String.format("%s %d%% **%s** (%d)", bar(percent, 15), percent, entry.getKey(), entry.getAmount());
                 })
                 .collect(Collectors.joining("\n")));
     }
 
     public static EmbedBuilder fillEmbed(Instance instance, EmbedBuilder builder) {
-        long total = TRACKERS.total(instance);
+        return fillEmbed(TRACKERS.ranking(instance, 12), builder);
+    }
+
+    public static EmbedBuilder fillEmbed(Ranking<String> ranking, EmbedBuilder builder) {
+        long total = ranking.total();
 
         if (total == 0) {
             builder.addField("Nothing Here.", "Just dust.", false);
             return builder;
         }
 
-        TRACKERS.highest(instance, 12)
-                .forEach(tracker -> {
-                    long percent = instance.amount(tracker) * 100 / total;
-                    builder.addField(tracker.getKey(), String.format("%s %d%% (%d)", bar(percent, 15), percent, instance.amount(tracker)), false);
-                });
+        for (var entry : ranking.entries()) {
+            long percent = entry.getAmount() * 100 / total;
+            builder.addField(entry.getKey(), String.format("%s %d%% (%d)", bar(percent, 15), percent, entry.getAmount()), false);
+        }
 
         return builder;
     }
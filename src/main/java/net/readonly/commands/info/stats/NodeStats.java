@@ -0,0 +1,165 @@
+package net.readonly.commands.info.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import lombok.Getter;
+
+/**
+ * Everything a node publishes about itself on each {@link StatsPublisher} tick: process and machine usage,
+ * the shards it runs and how many commands it ran.
+ * <br>Encoded as a fixed binary layout instead of JSON, about a fourth of the size and with nothing to parse
+ * field by field on the reading side.
+ */
+@Getter
+public final class NodeStats {
+    private static final byte VERSION = 1;
+
+    private final long publishedAt;
+    private final long uptime;
+    private final int availableProcessors;
+    private final long threadCount;
+    private final long freeMemory;
+    private final long maxMemory;
+    private final long totalMemory;
+    private final double cpuUsage;
+    private final double machineCpuUsage;
+    private final long machineFreeMemory;
+    private final long machineTotalMemory;
+    private final long commandsRan;
+    private final List<Shard> shards;
+
+    public NodeStats(long publishedAt, long uptime, int availableProcessors, long threadCount, long freeMemory, long maxMemory,
+                     long totalMemory, double cpuUsage, double machineCpuUsage, long machineFreeMemory, long machineTotalMemory,
+                     long commandsRan, List<Shard> shards) {
+        this.publishedAt = publishedAt;
+        this.uptime = uptime;
+        this.availableProcessors = availableProcessors;
+        this.threadCount = threadCount;
+        this.freeMemory = freeMemory;
+        this.maxMemory = maxMemory;
+        this.totalMemory = totalMemory;
+        this.cpuUsage = cpuUsage;
+        this.machineCpuUsage = machineCpuUsage;
+        this.machineFreeMemory = machineFreeMemory;
+        this.machineTotalMemory = machineTotalMemory;
+        this.commandsRan = commandsRan;
+        this.shards = Collections.unmodifiableList(shards);
+    }
+
+    public long getUsedMemory() {
+        return totalMemory - freeMemory;
+    }
+
+    public long getMachineUsedMemory() {
+        return machineTotalMemory - machineFreeMemory;
+    }
+
+    public long getGuildCount() {
+        long count = 0;
+        for (var shard : shards) {
+            count += shard.guilds;
+        }
+
+        return count;
+    }
+
+    public long getUserCount() {
+        long count = 0;
+        for (var shard : shards) {
+            count += shard.users;
+        }
+
+        return count;
+    }
+
+    @Nonnull
+    public byte[] toBytes() {
+        var bytes = new ByteArrayOutputStream(96 + shards.size() * 32);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(publishedAt);
+            out.writeLong(uptime);
+            out.writeShort(availableProcessors);
+            out.writeInt((int) threadCount);
+            out.writeLong(freeMemory);
+            out.writeLong(maxMemory);
+            out.writeLong(totalMemory);
+            out.writeFloat((float) cpuUsage);
+            out.writeFloat((float) machineCpuUsage);
+            out.writeLong(machineFreeMemory);
+            out.writeLong(machineTotalMemory);
+            out.writeLong(commandsRan);
+            out.writeShort(shards.size());
+            for (var shard : shards) {
+                out.writeShort(shard.id);
+                out.writeUTF(shard.status);
+                out.writeInt((int) shard.guilds);
+                out.writeInt((int) shard.users);
+                out.writeInt((int) shard.gatewayPing);
+            }
+        } catch (IOException e) {
+            // Can't happen writing to memory.
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Nonnull
+    public static NodeStats fromBytes(@Nonnull byte[] bytes) throws IOException {
+        var in = new DataInputStream(new ByteArrayInputStream(bytes));
+        var version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported node stats version " + version);
+        }
+
+        var publishedAt = in.readLong();
+        var uptime = in.readLong();
+        var availableProcessors = in.readUnsignedShort();
+        var threadCount = in.readInt();
+        var freeMemory = in.readLong();
+        var maxMemory = in.readLong();
+        var totalMemory = in.readLong();
+        var cpuUsage = in.readFloat();
+        var machineCpuUsage = in.readFloat();
+        var machineFreeMemory = in.readLong();
+        var machineTotalMemory = in.readLong();
+        var commandsRan = in.readLong();
+        var shardCount = in.readUnsignedShort();
+        var shards = new ArrayList<Shard>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new Shard(in.readUnsignedShort(), in.readUTF(), in.readInt(), in.readInt(), in.readInt()));
+        }
+
+        return new NodeStats(publishedAt, uptime, availableProcessors, threadCount, freeMemory, maxMemory, totalMemory,
+                cpuUsage, machineCpuUsage, machineFreeMemory, machineTotalMemory, commandsRan, shards
+        );
+    }
+
+    @Getter
+    public static final class Shard {
+        private final int id;
+        private final String status;
+        private final long guilds;
+        private final long users;
+        private final long gatewayPing;
+
+        public Shard(int id, String status, long guilds, long users, long gatewayPing) {
+            this.id = id;
+            this.status = status;
+            this.guilds = guilds;
+            this.users = users;
+            this.gatewayPing = gatewayPing;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package net.readonly.commands.info.stats;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dv8tion.jda.api.JDA;
+import net.readonly.BotData;
+import net.readonly.ReadOnlyBot;
+import net.readonly.commands.info.AsyncInfoMonitor;
+import net.readonly.core.listener.BotListener;
+
+/**
+ * Publishes the stats of this node to redis, on a single thread and a single connection.
+ * <br>Every {@code statsPublishInterval} seconds the node, shard and command stats are collected and written in one
+ * pipelined {@code MULTI}/{@code EXEC} batch: the {@link NodeStats} of this node to the {@code node-stats} hash, and
+ * the command usage snapshot to the {@code usage-commands} hash if {@code statsSnapshotRedis} is enabled, reading
+ * back the snapshots of the other nodes for {@link StatsSnapshots#clusterCommands}.
+ * The node stats are also published on a channel in the same batch, which {@link ClusterStats} follows.
+ * <br>Both hashes expire {@link #TTL_INTERVALS} intervals after the last node published, and entries older than that
+ * are skipped when reading, so nodes that died without cleaning up drop out on their own.
+ */
+@Slf4j
+public class StatsPublisher {
+    private static final int TTL_INTERVALS = 3;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("Stats-Publisher").setDaemon(true).build()
+    );
+    private static volatile boolean started;
+
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+
+        started = true;
+        AsyncInfoMonitor.start();
+        // The first publish runs in the background, this node shouldn't be missing from the view until then.
+        ClusterStats.apply(StatsSnapshots.nodeName(), collect());
+
+        var interval = interval();
+        EXECUTOR.scheduleAtFixedRate(StatsPublisher::publish, 0, interval, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(StatsPublisher::remove, "Stats-Publisher-Shutdown"));
+        log.info("Publishing node stats to redis every {} seconds as {}", interval, StatsSnapshots.nodeName());
+    }
+
+    /**
+     * Reads the stats of every node that published recently, this one included.
+     * <br>This reads the whole hash, use {@link ClusterStats#view()} instead.
+     *
+     * @return The stats of each node, by node name.
+     */
+    @Nonnull
+    static Map<String, NodeStats> readAll() {
+        var now = System.currentTimeMillis();
+        var staleAfter = staleAfter();
+        var nodes = new HashMap<String, NodeStats>();
+
+        try (var jedis = BotData.getDefaultJedisPool().getResource()) {
+            for (var node : jedis.hgetAll(nodesKey()).entrySet()) {
+                var name = new String(node.getKey(), StandardCharsets.UTF_8);
+                try {
+                    var stats = NodeStats.fromBytes(node.getValue());
+                    if (now - stats.getPublishedAt() <= staleAfter) {
+                        nodes.put(name, stats);
+                    }
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable stats from node {}", name, e);
+                }
+            }
+        }
+
+        return nodes;
+    }
+
+    private static void publish() {
+        try {
+            var stats = collect();
+            var name = StatsSnapshots.nodeName();
+            var node = name.getBytes(StandardCharsets.UTF_8);
+            var ttl = ttl();
+            // Our own stats don't need the round trip.
+            ClusterStats.apply(name, stats);
+
+            try (var jedis = BotData.getDefaultJedisPool().getResource()) {
+                var pipeline = jedis.pipelined();
+                pipeline.multi();
+                pipeline.hset(nodesKey(), node, stats.toBytes());
+                pipeline.expire(nodesKey(), ttl);
+                pipeline.publish(ClusterStats.channel(), ClusterStats.message(name, stats));
+
+                var snapshotRedis = BotData.config().isStatsSnapshotRedis();
+                var usage = snapshotRedis ? CommandStatsManager.trackers().snapshot(Function.identity()) : null;
+                if (snapshotRedis) {
+                    pipeline.hset(StatsSnapshots.redisKey(StatsSnapshots.COMMANDS), node, usage.toBytes());
+                    pipeline.expire(StatsSnapshots.redisKey(StatsSnapshots.COMMANDS), ttl);
+                }
+
+                pipeline.exec();
+                // Everyone's usages come back in the same round trip, so stats usage never has to ask redis.
+                var usages = snapshotRedis ? pipeline.hgetAll(StatsSnapshots.redisKey(StatsSnapshots.COMMANDS)) : null;
+                pipeline.sync();
+
+                if (usages != null) {
+                    StatsSnapshots.updateClusterCommands(usage, usages.get());
+                }
+            }
+        } catch (Exception e) {
+            // Don't let the exception cancel the task, redis might be back by the next tick.
+            log.warn("Couldn't publish node stats", e);
+        }
+    }
+
+    private static NodeStats collect() {
+        AsyncInfoMonitor.sample();
+        var shards = new ArrayList<NodeStats.Shard>();
+        for (var jda : ReadOnlyBot.instance().getCore().shards()) {
+            shards.add(shard(jda));
+        }
+
+        return new NodeStats(
+                System.currentTimeMillis(),
+                ManagementFactory.getRuntimeMXBean().getUptime(),
+                AsyncInfoMonitor.getAvailableProcessors(),
+                AsyncInfoMonitor.getThreadCount(),
+                AsyncInfoMonitor.getFreeMemory(),
+                AsyncInfoMonitor.getMaxMemory(),
+                AsyncInfoMonitor.getTotalMemory(),
+                AsyncInfoMonitor.getInstanceCPUUsage(),
+                AsyncInfoMonitor.getMachineCPUUsage(),
+                AsyncInfoMonitor.getMachineFreeMemory(),
+                AsyncInfoMonitor.getMachineTotalMemory(),
+                BotListener.getCommandTotal(),
+                shards
+        );
+    }
+
+    private static NodeStats.Shard shard(JDA jda) {
+        return new NodeStats.Shard(jda.getShardInfo().getShardId(), jda.getStatus().name(),
+                jda.getGuildCache().size(), jda.getUserCache().size(), jda.getGatewayPing()
+        );
+    }
+
+    // Takes this node out right away on a clean shutdown, instead of waiting for it to go stale.
+    private static void remove() {
+        try (var jedis = BotData.getDefaultJedisPool().getResource()) {
+            var name = StatsSnapshots.nodeName();
+            var node = name.getBytes(StandardCharsets.UTF_8);
+            var pipeline = jedis.pipelined();
+            pipeline.hdel(nodesKey(), node);
+            pipeline.hdel(StatsSnapshots.redisKey(StatsSnapshots.COMMANDS), node);
+            pipeline.publish(ClusterStats.channel(), ClusterStats.message(name, null));
+            pipeline.sync();
+        } catch (Exception e) {
+            log.warn("Couldn't remove node stats on shutdown", e);
+        }
+    }
+
+    private static int interval() {
+        return Math.max(1, BotData.config().getStatsPublishInterval());
+    }
+
+    private static int ttl() {
+        return interval() * TTL_INTERVALS;
+    }
+
+    static long staleAfter() {
+        return TimeUnit.SECONDS.toMillis(ttl());
+    }
+
+    private static byte[] nodesKey() {
+        return ("node-stats-" + BotData.config().getClientId()).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,219 @@
+package net.readonly.commands.info.stats;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+import net.readonly.BotData;
+import net.readonly.core.modules.commands.base.CommandCategory;
+import net.readonly.utils.tracker.DefaultInstance;
+import net.readonly.utils.tracker.GroupSnapshot;
+import net.readonly.utils.tracker.Instance;
+import net.readonly.utils.tracker.Ranking;
+import net.readonly.utils.tracker.TrackerGroup;
+
+/**
+ * Keeps command and category usage across restarts, and shares it between nodes.
+ * <br>Every {@code statsSnapshotInterval} minutes (and on shutdown) both tracker groups are written to
+ * {@code statsSnapshotDirectory}, to a temporary file first, synced to disk and then renamed over the old one, so a
+ * crash mid-write never leaves a truncated snapshot behind. Saves never overlap. On start, the last snapshots are
+ * added back to the trackers.
+ * <br>With {@code statsSnapshotRedis} enabled, {@link StatsPublisher} also pushes the command snapshot to a redis hash
+ * keyed by node name, and reads back everyone else's in the same batch. {@link #clusterCommands(Instance, int)} merges
+ * those with this node's live usages into cluster-wide rankings.
+ */
+@Slf4j
+public class StatsSnapshots {
+    static final String COMMANDS = "commands";
+    private static final String CATEGORIES = "categories";
+    // How many commands stats usage shows, ranked ahead of time on every tick.
+    public static final int USAGE_RANKING_SIZE = 12;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("Stats-Snapshots").setDaemon(true).build()
+    );
+    private static volatile boolean started;
+    // Every node's command usages merged on the last publisher tick, this one included. Null until first read.
+    private static volatile TrackerGroup<String> clusterCommands;
+
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+
+        started = true;
+        var config = BotData.config();
+        restore(COMMANDS, CommandStatsManager.trackers(), Function.identity());
+        restore(CATEGORIES, CategoryStatsManager.trackers(), StatsSnapshots::parseCategory);
+
+        var interval = Math.max(1, config.getStatsSnapshotInterval());
+        EXECUTOR.scheduleWithFixedDelay(StatsSnapshots::save, interval, interval, TimeUnit.MINUTES);
+        Runtime.getRuntime().addShutdownHook(new Thread(StatsSnapshots::shutdown, "Stats-Snapshots-Shutdown"));
+        log.info("Saving usage stats every {} minutes to {}", interval, directory().toAbsolutePath());
+    }
+
+    /**
+     * Ranks commands across every node that pushed a snapshot recently, this one included.
+     * <br>The usages are merged once per {@link StatsPublisher} tick, and rankings of the merge are cached until the
+     * next one, so this never goes to redis nor walks every tracker more than once per tick.
+     * Falls back to the local ranking if redis snapshots are disabled or haven't been read yet.
+     *
+     * @param instance The Instance to rank commands by.
+     * @param amount The maximum amount of results.
+     *
+     * @return The cluster-wide ranking, at most a tick old.
+     */
+    @Nonnull
+    public static Ranking<String> clusterCommands(@Nonnull Instance instance, int amount) {
+        var cluster = clusterCommands;
+        if (!BotData.config().isStatsSnapshotRedis() || cluster == null) {
+            return CommandStatsManager.trackers().ranking(instance, amount);
+        }
+
+        return cluster.ranking(instance, amount);
+    }
+
+    /**
+     * Replaces the merged command usages of the cluster.
+     *
+     * @param self This node's command snapshot, as just pushed.
+     * @param nodes The command snapshots in redis, by node name.
+     */
+    static void updateClusterCommands(@Nonnull GroupSnapshot self, @Nonnull Map<byte[], byte[]> nodes) {
+        var now = System.currentTimeMillis();
+        var staleAfter = StatsPublisher.staleAfter();
+        var selfName = nodeName().getBytes(StandardCharsets.UTF_8);
+        var snapshots = new ArrayList<GroupSnapshot>();
+        snapshots.add(self);
+
+        for (var node : nodes.entrySet()) {
+            if (Arrays.equals(node.getKey(), selfName)) {
+                continue;
+            }
+
+            try {
+                var snapshot = GroupSnapshot.fromBytes(node.getValue());
+                if (now - snapshot.getTakenAt() <= staleAfter) {
+                    snapshots.add(snapshot);
+                }
+            } catch (IOException e) {
+                log.warn("Skipping unreadable usage snapshot from node {}", new String(node.getKey(), StandardCharsets.UTF_8), e);
+            }
+        }
+
+        // Detached groups are never rolled, so their cached rankings hold until this is replaced.
+        var cluster = TrackerGroup.<String>detached();
+        cluster.restore(GroupSnapshot.merge(snapshots, now), Function.identity());
+        cluster.ranking(DefaultInstance.LAST_DAY, USAGE_RANKING_SIZE);
+        clusterCommands = cluster;
+    }
+
+    private static void shutdown() {
+        // Let a scheduled save finish before the last one, instead of racing it.
+        EXECUTOR.shutdown();
+        try {
+            EXECUTOR.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        save();
+    }
+
+    private static synchronized void save() {
+        try {
+            write(COMMANDS, CommandStatsManager.trackers().snapshot(Function.identity()));
+            write(CATEGORIES, CategoryStatsManager.trackers().snapshot(CommandCategory::name));
+        } catch (Exception e) {
+            log.error("Couldn't save usage stats", e);
+        }
+    }
+
+    private static void write(String name, GroupSnapshot snapshot) throws IOException {
+        var directory = directory();
+        Files.createDirectories(directory);
+        var target = directory.resolve(name + ".bin");
+        var temporary = directory.resolve(name + ".bin.tmp");
+
+        // Forced to disk before the rename, or a crash right after it could leave the new name pointing at nothing.
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.wrap(snapshot.toBytes());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static <K> void restore(String name, TrackerGroup<K> group, Function<String, K> keyParser) {
+        var file = directory().resolve(name + ".bin");
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+
+        try {
+            var snapshot = GroupSnapshot.fromBytes(Files.readAllBytes(file));
+            group.restore(snapshot, keyParser);
+            log.info("Restored {} usage stats for {} trackers", name, snapshot.getTrackers().size());
+        } catch (IOException e) {
+            log.warn("Couldn't restore {} usage stats from {}", name, file, e);
+        }
+    }
+
+    private static CommandCategory parseCategory(String name) {
+        try {
+            return CommandCategory.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            // Category removed since the snapshot was taken.
+            return null;
+        }
+    }
+
+    private static Path directory() {
+        return Path.of(BotData.config().getStatsSnapshotDirectory());
+    }
+
+    static byte[] redisKey(String name) {
+        return ("usage-" + name + "-" + BotData.config().getClientId()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String nodeName() {
+        var configured = BotData.config().getNodeName();
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return ManagementFactory.getRuntimeMXBean().getName();
+        }
+    }
+}
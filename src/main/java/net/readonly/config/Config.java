@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.User;
+import net.readonly.core.executor.ShedPolicy;
 
 @Data
 @NoArgsConstructor
@@ -25,6 +26,24 @@ public class Config {
 	private int jedisPoolPort = 6379;
 	private int prometheusPort = 9091;
 	private String webhookUrl = "URL";
+	private long guildCacheSize = 10000;
+	private long guildCacheExpiry = 30;
+	private int commandThreads = 0;
+	private int commandQueueSize = 1000;
+	private ShedPolicy commandShedPolicy = ShedPolicy.CALLER_RUNS;
+	private boolean virtualThreads = false;
+	private int commandLaneDepth = 20;
+	private String nodeName = "";
+	private String statsSnapshotDirectory = "stats";
+	private int statsSnapshotInterval = 5;
+	private boolean statsSnapshotRedis = false;
+	private int statsPublishInterval = 30;
+	private boolean shardManager = false;
+	private int totalShards = 1;
+	private int fromShard = 0;
+	private int toShard = -1;
+	private int identifyConcurrency = 0;
+	private boolean identifyRedisLock = false;
 	private Database database = new Database();
 
 	public boolean isOwner(Member member) {
@@ -30,9 +30,12 @@ import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import net.readonly.commands.info.stats.CategoryStatsManager;
 import net.readonly.commands.info.stats.CommandStatsManager;
 import net.readonly.core.command.CommandManager;
+import net.readonly.core.command.CommandTrie;
 import net.readonly.core.command.NewCommand;
 import net.readonly.core.command.NewContext;
+import net.readonly.core.command.ParsedMessage;
 import net.readonly.core.command.argument.ArgumentParseError;
+import net.readonly.core.command.processor.CommandTimer;
 import net.readonly.core.modules.commands.AliasCommand;
 import net.readonly.core.modules.commands.base.Command;
 import net.readonly.core.modules.commands.base.CommandCategory;
@@ -41,6 +44,7 @@ import net.readonly.core.modules.commands.base.Context;
 import net.readonly.core.modules.commands.help.HelpContent;
 import net.readonly.core.modules.commands.i18n.I18nContext;
 import net.readonly.utils.EmoteReference;
+import net.readonly.utils.exports.CommandLatency.Phase;
 import net.readonly.utils.exports.Metrics;
 
 public class CommandRegistry {
@@ -48,6 +52,8 @@ public class CommandRegistry {
 
     private final Map<String, Command> commands;
     private final CommandManager newCommands = new CommandManager();
+    // Rebuilt from the maps above by buildIndex(), commands registered afterwards aren't visible until the next rebuild.
+    private volatile CommandTrie<Command> index = CommandTrie.empty();
 
     public CommandRegistry(Map<String, Command> commands) {
         this.commands = Preconditions.checkNotNull(commands);
@@ -67,14 +73,49 @@ public class CommandRegistry {
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
-    public void process(GuildMessageReceivedEvent event, String cmdName, String content, String prefix, boolean isMention) {
-    	final var start = System.currentTimeMillis();
-        var command = commands.get(cmdName.toLowerCase());
+    /**
+     * Builds the command trie from every registered command, alias and subcommand, and swaps it in.
+     * Called once all modules registered their commands, and again whenever commands change.
+     */
+    public void buildIndex() {
+        CommandTrie.Builder<Command> builder = CommandTrie.builder();
+        for (var entry : commands.entrySet()) {
+            var command = entry.getValue();
+            var children = builder.add(entry.getKey(), command);
+            if (command instanceof ProxyCommand) {
+                addChildren(children, ((ProxyCommand) command).c);
+            }
+        }
+
+        index = builder.build();
+        log.info("Built command index with {} names", index.size());
+    }
+
+    private static void addChildren(CommandTrie.Builder<Command> builder, NewCommand parent) {
+        for (var child : parent.children()) {
+            var proxy = new ProxyCommand(child);
+            var children = builder.add(child.name(), proxy);
+            for (var alias : child.aliases()) {
+                builder.add(alias, proxy);
+            }
+
+            addChildren(children, child);
+        }
+    }
+
+    public void process(GuildMessageReceivedEvent event, ParsedMessage parsed, I18nContext languageContext, String prefix, boolean isMention) {
+        final var timer = CommandTimer.current();
+        // Resolved on the content itself, the name is only copied out if something needs it.
+        var entry = index.find(parsed.content(), 0, parsed.nameEnd());
 
-        if (command == null) {
+        if (entry == null) {
             return;
         }
 
+        timer.lap(Phase.RESOLVE);
+
+        final var command = entry.value();
+
         final var author = event.getAuthor();
         final var channel = event.getChannel();
         // Variable used in lambda expression should be final or effectively final...
@@ -87,44 +128,74 @@ public class CommandRegistry {
             channel.sendMessage(EmoteReference.STOP + "You have no permissions to trigger this command :(").queue();
             return;
         }
-        
-        // Used a command on the new system?
-        boolean executedNew;
-        try {
-            executedNew = newCommands.execute(new NewContext(event.getMessage(),
-            		new I18nContext(),
-                    event.getMessage().getContentRaw().substring(prefix.length()))
-            );
-        } catch (ArgumentParseError e) {
-            if (e.getMessage() != null) {
-                channel.sendMessage(EmoteReference.ERROR + e.getMessage()).queue();
-            } else {
-                e.printStackTrace();
-                channel.sendMessage(
-                        EmoteReference.ERROR + "There was an error parsing the arguments for this command. Please report this to the developers"
-                ).queue();
-            }
 
-            return;
+        timer.lap(Phase.PERMISSION);
+
+        // Commands on the new system resolve their subcommands on the same trie.
+        if (cmd instanceof ProxyCommand) {
+            try {
+                var ctx = new NewContext(event.getMessage(), languageContext, parsed);
+                timer.lap(Phase.PARSE);
+                // Subcommands are resolved on the token offsets, then the arguments skip past them.
+                // The first token is the command name itself.
+                var content = parsed.content();
+                var tokens = parsed.tokens();
+                var resolved = entry;
+                var offset = 1;
+                while (offset < tokens.length) {
+                    var token = tokens[offset];
+                    var child = resolved.children().find(content, token.start(), token.end());
+                    if (child == null) {
+                        break;
+                    }
+
+                    resolved = child;
+                    offset++;
+                }
+
+                ctx.arguments().setOffset(offset);
+
+                timer.lap(Phase.RESOLVE);
+                timer.handler();
+                ((ProxyCommand) resolved.value()).c.execute(ctx);
+                timer.lap(Phase.HANDLER);
+            } catch (ArgumentParseError e) {
+                if (e.getMessage() != null) {
+                    channel.sendMessage(EmoteReference.ERROR + e.getMessage()).queue();
+                } else {
+                    e.printStackTrace();
+                    channel.sendMessage(
+                            EmoteReference.ERROR + "There was an error parsing the arguments for this command. Please report this to the developers"
+                    ).queue();
+                }
+
+                return;
+            }
+        } else {
+            var ctx = new Context(event, languageContext, parsed, isMention);
+            timer.lap(Phase.PARSE);
+            timer.handler();
+            cmd.run(ctx, parsed.commandName(), parsed.arguments());
+            timer.lap(Phase.HANDLER);
         }
 
-        if (!executedNew) {
-            cmd.run(new Context(event, new I18nContext(), content, isMention), cmdName, content);
+        if (log.isDebugEnabled()) {
+            log.debug("!! COMMAND INVOKE: command:{}, user:{} ({}), guild:{}, channel:{}",
+                    parsed.commandName(), author.getAsTag(), author.getId(), guild.getId(), channel.getId()
+            );
         }
-
-        log.debug("!! COMMAND INVOKE: command:{}, user:{} ({}), guild:{}, channel:{}",
-                cmdName, author.getAsTag(), author.getId(), guild.getId(), channel.getId()
-        );
         
-        final var end = System.currentTimeMillis();
-        final var category = root(cmd).category().name().toLowerCase();
+        final var category = root(cmd).category();
+        
+        final var name = name(cmd, entry.name());
         
-        CommandStatsManager.log(name(cmd, cmdName));
+        CommandStatsManager.log(name);
         CategoryStatsManager.log(category);
         
-        Metrics.CATEGORY_COUNTER.labels(category).inc();
-        Metrics.COMMAND_COUNTER.labels(name(cmd, cmdName)).inc();
-        Metrics.COMMAND_LATENCY.observe(end - start);
+        final var categoryName = category.name().toLowerCase();
+        Metrics.CATEGORY_COUNTER.labels(categoryName).inc();
+        Metrics.COMMAND_COUNTER.labels(name).inc();
+        timer.finish(name, categoryName);
     }
 
     public void register(Class<? extends NewCommand> clazz) {
@@ -154,7 +225,7 @@ public class CommandRegistry {
         register(alias, new AliasCommand(alias, command, parent));
     }
     
-    private static String name(Command c, String userInput) {
+    private static String name(Command c, String registeredName) {
         if (c instanceof AliasCommand) {
             return ((AliasCommand) c).getOriginalName();
         }
@@ -163,7 +234,7 @@ public class CommandRegistry {
             return ((ProxyCommand) c).c.name();
         }
 
-        return userInput.toLowerCase();
+        return registeredName;
     }
 
     private Command root(Command c) {
@@ -0,0 +1,168 @@
+package net.readonly.core;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.dv8tion.jda.api.utils.SessionControllerAdapter;
+import net.readonly.BotData;
+import redis.clients.jedis.params.SetParams;
+
+/**
+ * Brings shards up following Discord's {@code max_concurrency}: shards are split in buckets by
+ * {@code shardId % max_concurrency}, each bucket identifies one shard every {@link #IDENTIFY_DELAY} seconds, and
+ * buckets run in parallel. Booting takes as long as the largest bucket, instead of five seconds per shard.
+ * <br>Discord enforces buckets per bot, not per process. With {@code identifyRedisLock} enabled, every node takes a
+ * short-lived redis lock on the bucket before identifying, and leaves it to expire after the identify delay, so nodes
+ * starting at the same time share buckets without any extra coordination. Otherwise, and whenever redis can't be
+ * reached, buckets are only spaced locally.
+ */
+public class IdentifyScheduler extends SessionControllerAdapter {
+    private static final Logger log = LoggerFactory.getLogger(IdentifyScheduler.class);
+    private static final long IDENTIFY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(IDENTIFY_DELAY);
+
+    private final ConcurrentMap<Integer, Bucket> buckets = new ConcurrentHashMap<>();
+    private final IntConsumer onIdentify;
+    private final boolean configuredConcurrency;
+    private final boolean redisLock;
+    private volatile int concurrency;
+
+    /**
+     * @param concurrency Identify concurrency to use, or 0 to use the one Discord reports.
+     * @param redisLock Whether to coordinate buckets with other nodes through redis.
+     * @param onIdentify Called with the shard id right before each shard identifies for the first time.
+     */
+    public IdentifyScheduler(int concurrency, boolean redisLock, @Nonnull IntConsumer onIdentify) {
+        this.configuredConcurrency = concurrency > 0;
+        this.concurrency = Math.max(1, concurrency);
+        this.redisLock = redisLock;
+        this.onIdentify = onIdentify;
+    }
+
+    @Override
+    public void setConcurrency(int level) {
+        if (!configuredConcurrency) {
+            concurrency = Math.max(1, level);
+            log.info("Identifying with a concurrency of {}", concurrency);
+        }
+    }
+
+    @Override
+    public void appendSession(@Nonnull SessionConnectNode node) {
+        bucket(node).add(node);
+    }
+
+    @Override
+    public void removeSession(@Nonnull SessionConnectNode node) {
+        bucket(node).queue.remove(node);
+    }
+
+    private Bucket bucket(SessionConnectNode node) {
+        return buckets.computeIfAbsent(node.getShardInfo().getShardId() % concurrency, Bucket::new);
+    }
+
+    private class Bucket implements Runnable {
+        private final int id;
+        private final Queue<SessionConnectNode> queue = new ConcurrentLinkedQueue<>();
+        // Guarded by this.
+        private Thread worker;
+        private long lastIdentify;
+
+        Bucket(int id) {
+            this.id = id;
+        }
+
+        void add(SessionConnectNode node) {
+            queue.add(node);
+            synchronized (this) {
+                if (worker == null) {
+                    worker = new Thread(this, "Identify-Bucket-" + id);
+                    worker.setDaemon(true);
+                    worker.start();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    synchronized (this) {
+                        // Checked under the lock, so add() either sees this worker or starts a new one.
+                        if (queue.isEmpty()) {
+                            worker = null;
+                            return;
+                        }
+                    }
+
+                    acquire();
+                    var node = queue.poll();
+                    if (node == null) {
+                        continue;
+                    }
+
+                    var shardId = node.getShardInfo().getShardId();
+                    log.debug("Shard {} identifying on bucket {}{}", shardId, id, node.isReconnect() ? " (reconnect)" : "");
+                    // JDA only fires ReadyEvent once per shard, so a reconnecting shard has to stay ready.
+                    if (!node.isReconnect()) {
+                        onIdentify.accept(shardId);
+                    }
+
+                    try {
+                        node.run(queue.isEmpty());
+                    } catch (IllegalStateException e) {
+                        log.error("Shard {} failed to identify", shardId, e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                synchronized (this) {
+                    worker = null;
+                }
+            }
+        }
+
+        // Waits until this bucket can identify again, here and (if enabled) on every other node.
+        private void acquire() throws InterruptedException {
+            var wait = lastIdentify + IDENTIFY_DELAY_MILLIS - System.currentTimeMillis();
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+
+            if (redisLock) {
+                acquireRedis();
+            }
+
+            lastIdentify = System.currentTimeMillis();
+        }
+
+        private void acquireRedis() throws InterruptedException {
+            var key = "identify-" + BotData.config().getClientId() + "-" + id;
+            var params = SetParams.setParams().nx().px(IDENTIFY_DELAY_MILLIS);
+            while (true) {
+                long wait;
+                try (var jedis = BotData.getDefaultJedisPool().getResource()) {
+                    // Never released, expiring is what spaces out identifies on the bucket.
+                    if ("OK".equals(jedis.set(key, String.valueOf(ProcessHandle.current().pid()), params))) {
+                        return;
+                    }
+
+                    wait = jedis.pttl(key);
+                } catch (Exception e) {
+                    log.warn("Couldn't take the identify lock of bucket {}, only spacing identifies locally", id, e);
+                    return;
+                }
+
+                Thread.sleep(Math.max(50, wait));
+            }
+        }
+    }
+}
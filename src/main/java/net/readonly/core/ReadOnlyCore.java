@@ -5,16 +5,19 @@ import static net.readonly.core.LoadState.*;
 import java.lang.annotation.Annotation;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.security.auth.login.LoginException;
 
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,20 +29,28 @@ import io.github.classgraph.ClassInfo;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Message;
-import net.dv8tion.jda.api.events.GenericEvent;
 import net.dv8tion.jda.api.events.ReadyEvent;
-import net.dv8tion.jda.api.hooks.EventListener;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.requests.restaction.MessageAction;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import net.dv8tion.jda.api.utils.ChunkingFilter;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
-import net.readonly.BotData;
 import net.readonly.ReadOnlyBot;
+import net.readonly.commands.info.stats.ClusterStats;
+import net.readonly.commands.info.stats.StatsPublisher;
+import net.readonly.commands.info.stats.StatsSnapshots;
 import net.readonly.config.Config;
 import net.readonly.core.command.processor.CommandProcessor;
+import net.readonly.core.executor.CommandExecutor;
+import net.readonly.core.executor.LaneDispatcher;
 import net.readonly.core.listener.BotListener;
+import net.readonly.core.listener.EventRouter;
 import net.readonly.core.listener.event.LoadingEvent;
+import net.readonly.core.listener.operation.InteractiveOperations;
+import net.readonly.core.listener.operation.ReactionOperations;
 import net.readonly.core.modules.Module;
 import net.readonly.logs.LogUtils;
 import net.readonly.options.annotations.Optionable;
@@ -50,11 +61,13 @@ import net.readonly.utils.exports.Metrics;
 public class ReadOnlyCore {
     private static final Logger log = LoggerFactory.getLogger(ReadOnlyCore.class);
     
-    private final ExecutorService threadPool = Executors.newCachedThreadPool(
-            new ThreadFactoryBuilder().setNameFormat("ReadOnly Thread-%d").build()
-    );
+    private final CommandExecutor commandExecutor;
+    private final LaneDispatcher commandLanes;
     
-    private static LoadState loadState = PRELOAD;
+    private static volatile LoadState loadState = PRELOAD;
+    // Load state of each shard this node runs. The node is POSTLOAD once all of them are.
+    private static final Map<Integer, LoadState> shardStates = new ConcurrentHashMap<>();
+    private static volatile long bootStart;
     private final Config config;
     @SuppressWarnings("unused")
 	private final boolean isDebug;
@@ -65,12 +78,19 @@ public class ReadOnlyCore {
     private final CommandProcessor commandProcessor = new CommandProcessor();
     private EventBus eventBus;
     private JDA jdaInstance;
+    private ShardManager shardManager;
+    private int firstShard;
+    // Shared by every shard, so they're shut down here instead of by whichever shard stops first.
+    private ScheduledExecutorService gatewayPool;
+    private ScheduledExecutorService rateLimitPool;
     
     
     public ReadOnlyCore(Config config, boolean isDebug) {
         this.config = config;
         this.isDebug = isDebug;
-        Metrics.THREAD_POOL_COLLECTOR.add("read-only-executor", threadPool);
+        this.commandExecutor = CommandExecutor.create("read-only-executor", config);
+        Metrics.THREAD_POOL_COLLECTOR.add(commandExecutor.name(), commandExecutor);
+        this.commandLanes = new LaneDispatcher(commandExecutor, config.getCommandLaneDepth());
     }
     
     public static boolean hasLoadedCompletely() {
@@ -84,6 +104,39 @@ public class ReadOnlyCore {
     public static void setLoadState(LoadState loadState) {
     	ReadOnlyCore.loadState = loadState;
     }
+
+    /**
+     * Returns the load state of a shard: LOADING while queued to identify, LOADED while identifying and POSTLOAD once
+     * ready.
+     *
+     * @param shardId The shard id.
+     *
+     * @return The load state of the shard, or PRELOAD if this node doesn't run it.
+     */
+    public static LoadState getLoadState(int shardId) {
+        return shardStates.getOrDefault(shardId, PRELOAD);
+    }
+
+    private static void setShardState(int shardId, LoadState state) {
+        var previous = shardStates.put(shardId, state);
+        if (state != POSTLOAD || previous == POSTLOAD) {
+            return;
+        }
+
+        var ready = shardStates.values().stream().filter(POSTLOAD::equals).count();
+        log.info("Shard {} ready ({}/{}) after {}", shardId, ready, shardStates.size(),
+                DateFormatting.formatDuration(System.currentTimeMillis() - bootStart)
+        );
+
+        if (ready == shardStates.size()) {
+            synchronized (ReadOnlyCore.class) {
+                if (loadState != POSTLOAD) {
+                    log.info("All {} shards ready, took {}", ready, DateFormatting.formatDuration(System.currentTimeMillis() - bootStart));
+                    loadState = POSTLOAD;
+                }
+            }
+        }
+    }
     
     public ReadOnlyCore setOptionsPackage(String optionsPackage) {
         this.optionsPackage = optionsPackage;
@@ -97,6 +150,7 @@ public class ReadOnlyCore {
     
     private void startInstance() {
     	var start = System.currentTimeMillis();
+    	bootStart = start;
     	loadState = LOADING;
 
         var gatewayThreadFactory = new ThreadFactoryBuilder()
@@ -125,35 +179,88 @@ public class ReadOnlyCore {
                     .collect(Collectors.joining(", "))
             );
             
-            var startListener = new StartListener();
-            
-            var jdaInstance = JDABuilder.create(config.getToken(), Arrays.asList(toEnable))
-            		.setChunkingFilter(ChunkingFilter.NONE)
-            		.addEventListeners(
-            				new BotListener(commandProcessor, threadPool),
-            				startListener
-            		)
-					.disableCache(EnumSet.of(CacheFlag.ACTIVITY, CacheFlag.EMOTE, CacheFlag.CLIENT_STATUS, CacheFlag.VOICE_STATE))
-					.setActivity(Activity.playing("Hold on to your seatbelts!"));
-            
-            var gatewayThreads = Math.max(1, 1 / 16);
-            var rateLimitThreads = Math.max(2, 1 * 5 / 4);
+            // Every shard dispatches through the same router, which only hands each listener the events it subscribed to.
+            var eventRouter = new EventRouter();
+            eventRouter.register(new BotListener(commandProcessor, commandLanes));
+            eventRouter.register(new StartListener());
+            eventRouter.register(InteractiveOperations.listener());
+            eventRouter.register(ReactionOperations.listener());
+            var disabledCache = EnumSet.of(CacheFlag.ACTIVITY, CacheFlag.EMOTE, CacheFlag.CLIENT_STATUS, CacheFlag.VOICE_STATE);
+            var activity = Activity.playing("Hold on to your seatbelts!");
+
+            // Shards this node runs, out of 0 to totalShards - 1. Without the shard manager, it's just shard 0 of 1.
+            var totalShards = 1;
+            var fromShard = 0;
+            var toShard = 0;
+            if (config.isShardManager()) {
+                totalShards = Math.max(1, config.getTotalShards());
+                fromShard = Math.max(0, config.getFromShard());
+                toShard = config.getToShard() < 0 ? totalShards - 1 : Math.min(config.getToShard(), totalShards - 1);
+            }
+
+            this.firstShard = fromShard;
+            var shardCount = toShard - fromShard + 1;
+            if (shardCount < 1) {
+                throw new IllegalStateException("Invalid shard range %d-%d of %d".formatted(fromShard, toShard, totalShards));
+            }
+
+            var gatewayThreads = Math.max(1, shardCount / 16);
+            var rateLimitThreads = Math.max(2, shardCount * 5 / 4);
 
             log.info("Gateway pool: {} threads", gatewayThreads);
             log.info("Rate limit pool: {} threads", rateLimitThreads);
-            
-            jdaInstance.setGatewayPool(Executors.newScheduledThreadPool(gatewayThreads, gatewayThreadFactory), true);
-            jdaInstance.setRateLimitPool(Executors.newScheduledThreadPool(rateLimitThreads, requesterThreadFactory), true);
-            		
-            this.jdaInstance = jdaInstance.build();
-            
+
+            for (int shard = fromShard; shard <= toShard; shard++) {
+                shardStates.put(shard, LOADING);
+            }
+
+            // Identifies are spread over max_concurrency buckets, optionally shared with other nodes through redis.
+            var identifyScheduler = new IdentifyScheduler(config.getIdentifyConcurrency(), config.isIdentifyRedisLock(),
+                    shard -> setShardState(shard, LOADED)
+            );
+
+            this.gatewayPool = Executors.newScheduledThreadPool(gatewayThreads, gatewayThreadFactory);
+            this.rateLimitPool = Executors.newScheduledThreadPool(rateLimitThreads, requesterThreadFactory);
+
+            if (config.isShardManager()) {
+                log.info("Starting shards {} to {} of {}", fromShard, toShard, totalShards);
+                this.shardManager = DefaultShardManagerBuilder.create(config.getToken(), Arrays.asList(toEnable))
+                        .setChunkingFilter(ChunkingFilter.NONE)
+                        .setEventManagerProvider(shard -> eventRouter)
+                        .disableCache(disabledCache)
+                        .setActivity(activity)
+                        .setShardsTotal(totalShards)
+                        .setShards(fromShard, toShard)
+                        .setGatewayPool(gatewayPool, false)
+                        .setRateLimitPool(rateLimitPool, false)
+                        .setSessionController(identifyScheduler)
+                        .build();
+            } else {
+                this.jdaInstance = JDABuilder.create(config.getToken(), Arrays.asList(toEnable))
+                        .setChunkingFilter(ChunkingFilter.NONE)
+                        .setEventManager(eventRouter)
+                        .disableCache(disabledCache)
+                        .setActivity(activity)
+                        .setGatewayPool(gatewayPool, false)
+                        .setRateLimitPool(rateLimitPool, false)
+                        .setSessionController(identifyScheduler)
+                        .build();
+            }
+
+            Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "Shards-Shutdown"));
             var elapsed = System.currentTimeMillis() - start;
             
             startPostLoadProcedure(elapsed);
         } catch (LoginException e) {
             throw new IllegalStateException(e);
         }
-        loadState = LOADED;
+
+        synchronized (ReadOnlyCore.class) {
+            // Every shard might be ready already.
+            if (loadState != POSTLOAD) {
+                loadState = LOADED;
+            }
+        }
     }
     
     public void start() {
@@ -199,6 +306,7 @@ public class ReadOnlyCore {
         	
             log.info("Registering all commands (@Module)");
             eventBus.post(CommandProcessor.REGISTRY);
+            CommandProcessor.REGISTRY.buildIndex();
             log.info("Registered all commands (@Module)");
             
             log.info("Registering all options (@Option)");
@@ -207,12 +315,53 @@ public class ReadOnlyCore {
         }, "Event-Bus-Post").start();
     }
     
-    public void markAsReady() {
-        loadState = POSTLOAD;
-    }
-    
+    /**
+     * Returns a JDA instance, for anything that doesn't depend on the shard (REST calls, the self user).
+     * <br>With the shard manager, this is the lowest shard this node runs. The shard manager builds that one
+     * before returning from login, so it's there as soon as the core started.
+     *
+     * @return A JDA instance.
+     */
     public JDA jda() {
-    	return this.jdaInstance;
+        return shardManager == null ? this.jdaInstance : shardManager.getShardById(firstShard);
+    }
+
+    /**
+     * Shuts every shard down, then the gateway and rate-limit pools they share.
+     */
+    public void shutdown() {
+        if (shardManager != null) {
+            shardManager.shutdown();
+        } else if (jdaInstance != null) {
+            jdaInstance.shutdown();
+        }
+
+        if (gatewayPool != null) {
+            gatewayPool.shutdown();
+            rateLimitPool.shutdown();
+        }
+    }
+
+    /**
+     * Returns every shard this node runs, or the single JDA instance without the shard manager.
+     *
+     * @return The shards of this node.
+     */
+    public List<JDA> shards() {
+        if (shardManager == null) {
+            return this.jdaInstance == null ? List.of() : List.of(this.jdaInstance);
+        }
+
+        return shardManager.getShards();
+    }
+
+    public Guild getGuildById(long id) {
+        return shardManager == null ? this.jdaInstance.getGuildById(id) : shardManager.getGuildById(id);
+    }
+
+    @Nullable
+    public ShardManager getShardManager() {
+        return this.shardManager;
     }
     
     public EventBus getEventBus() {
@@ -231,15 +380,13 @@ public class ReadOnlyCore {
     private void startPostLoadProcedure(long elapsed) {
         var bot = ReadOnlyBot.instance();
 
-        // Start the reconnect queue.
-        bot.getCore().markAsReady();
+        // Starting the publisher puts this node in the local view right away, so it's counted too.
+        // Other nodes show up once the cluster stats subscription has caught up.
+        ClusterStats.start();
+        StatsPublisher.start();
 
         // Get the amount of clusters
-        int clusterTotal = 1;
-        try(var jedis = BotData.getDefaultJedisPool().getResource()) {
-            var clusters = jedis.hgetAll("node-stats-" + config.getClientId());
-            clusterTotal = clusters.size();
-        }
+        int clusterTotal = Math.max(1, ClusterStats.view().getNodes().size());
 
         log.info("Not aware of anything holding off boot now, considering bot as started");
         LogUtils.log(
@@ -256,6 +403,7 @@ public class ReadOnlyCore {
         log.info("Firing PostLoadEvent...");
         bot.getCore().getEventBus().post(new LoadingEvent.Post());
 
+        StatsSnapshots.start();
         startUpdaters();
     }
     
@@ -263,15 +411,8 @@ public class ReadOnlyCore {
         log.info("Starting list count executor...");
         Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "Server Count Update")).scheduleAtFixedRate(() -> {
             try {
-                var serverCount = 0L;
-                //Fetch actual guild count.
-                try(var jedis = BotData.getDefaultJedisPool().getResource()) {
-                    var stats = jedis.hgetAll("stats-" + config.getClientId());
-                    for (var g : stats.entrySet()) {
-                        var json = new JSONObject(g.getValue());
-                        serverCount += json.getLong("guild_count");
-                    }
-                }
+                // Actual guild count, from the local view of the cluster.
+                var serverCount = ClusterStats.view().getGuildCount();
 
                 log.debug("Updated server count ({})", serverCount);
             } catch (Exception ex) {
@@ -280,16 +421,20 @@ public class ReadOnlyCore {
         }, 0, 10, TimeUnit.MINUTES);
     }
     
-    private static class StartListener implements EventListener {
+    private static class StartListener implements EventRouter.Subscriber {
 
         @Override
-        public void onEvent(@Nonnull GenericEvent event) {
-            if (event instanceof ReadyEvent) {
-                var sm = event.getJDA();
-                if (sm == null) { // We have a big problem if this happens.
-                    throw new AssertionError();
-                }
+        public void subscribe(@Nonnull EventRouter.Subscriptions subscriptions) {
+            subscriptions.on(ReadyEvent.class, this::onReady);
+        }
+
+        private void onReady(ReadyEvent event) {
+            var sm = event.getJDA();
+            if (sm == null) { // We have a big problem if this happens.
+                throw new AssertionError();
             }
+
+            setShardState(sm.getShardInfo().getShardId(), POSTLOAD);
         }
     }
 }
@@ -15,7 +15,7 @@ public class CachedMessage {
     }
 
     public User getAuthor() {
-        var guild = ReadOnlyBot.instance().getJDA().getGuildById(guildId);
+        var guild = ReadOnlyBot.instance().getCore().getGuildById(guildId);
         User user = null;
 
         if (guild != null)  {
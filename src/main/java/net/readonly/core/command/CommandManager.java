@@ -47,22 +47,6 @@ public class CommandManager {
         return command;
     }
 
-    public boolean execute(@Nonnull NewContext ctx) {
-        var args = ctx.arguments();
-        if (args.hasNext()) {
-            var name = args.next().getValue().toLowerCase();
-            var child = commands.get(name);
-            if (child == null) {
-                child = commands.get(aliases.getOrDefault(name, ""));
-            }
-            if (child != null) {
-                child.execute(ctx);
-                return true;
-            }
-        }
-        return false;
-    }
-
     private static <T> T instantiate(Class<T> clazz) {
         try {
             return clazz.getDeclaredConstructor().newInstance();
@@ -0,0 +1,227 @@
+package net.readonly.core.command;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Immutable, case-insensitive lookup of commands by name or alias.
+ * <br>Every {@link Entry entry} may have its own trie of subcommands, so resolving {@code cmd sub subsub}
+ * is a walk over the input, one token at a time, without lowercasing or copying anything.
+ * <br>Being immutable, a trie can be rebuilt and swapped in with a single volatile write.
+ *
+ * @param <T> Type of the commands held.
+ */
+public final class CommandTrie<T> {
+    private static final CommandTrie<Object> EMPTY = new CommandTrie<>(new Node<>(new char[0], Node.array(0), null), 0);
+
+    private final Node<T> root;
+    private final int size;
+
+    private CommandTrie(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CommandTrie<T> empty() {
+        return (CommandTrie<T>) (CommandTrie<?>) EMPTY;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @param name Name or alias to look up, case-insensitively.
+     *
+     * @return The matching entry, or null if there's none.
+     */
+    @Nullable
+    @CheckReturnValue
+    public Entry<T> find(@Nonnull CharSequence name) {
+        return find(name, 0, name.length());
+    }
+
+    /**
+     * Looks up a region of the provided sequence, without copying it.
+     *
+     * @param input Sequence containing the name.
+     * @param start Index of the first character of the name, inclusive.
+     * @param end Index of the last character of the name, exclusive.
+     *
+     * @return The matching entry, or null if there's none.
+     */
+    @Nullable
+    @CheckReturnValue
+    public Entry<T> find(@Nonnull CharSequence input, int start, int end) {
+        var node = root;
+        for (int i = start; i < end && node != null; i++) {
+            node = node.next(Character.toLowerCase(input.charAt(i)));
+        }
+
+        return node == null ? null : node.entry;
+    }
+
+    /**
+     * @return Amount of names (including aliases) on this trie, not counting subcommands.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * A command found on the trie.
+     */
+    public static final class Entry<T> {
+        private final String name;
+        private final T value;
+        private final CommandTrie<T> children;
+
+        private Entry(String name, T value, CommandTrie<T> children) {
+            this.name = name;
+            this.value = value;
+            this.children = children;
+        }
+
+        /**
+         * @return The name the command was registered with. For aliases, this is the alias itself.
+         */
+        @Nonnull
+        public String name() {
+            return name;
+        }
+
+        @Nonnull
+        public T value() {
+            return value;
+        }
+
+        /**
+         * @return The subcommands of this command. Never null, but might be empty.
+         */
+        @Nonnull
+        public CommandTrie<T> children() {
+            return children;
+        }
+    }
+
+    private static final class Node<T> {
+        private final char[] keys;
+        private final Node<T>[] next;
+        private final Entry<T> entry;
+
+        private Node(char[] keys, Node<T>[] next, Entry<T> entry) {
+            this.keys = keys;
+            this.next = next;
+            this.entry = entry;
+        }
+
+        // Generic arrays can't be created directly. Only Node<T> is ever stored in it, so the cast holds.
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <T> Node<T>[] array(int length) {
+            return (Node<T>[]) new Node[length];
+        }
+
+        private Node<T> next(char c) {
+            // Fan out is small, this beats a binary search.
+            var keys = this.keys;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return next[i];
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Collects names before building a trie. Not thread safe.
+     */
+    public static final class Builder<T> {
+        private final BuilderNode<T> root = new BuilderNode<>();
+        // Aliases of the same command share the same subcommands.
+        private final Map<T, Builder<T>> children = new IdentityHashMap<>();
+        private int size;
+
+        private Builder() { }
+
+        /**
+         * Adds a command under the provided name. If the name is taken, the existing command is kept.
+         *
+         * @param name Name or alias of the command.
+         * @param value The command.
+         *
+         * @return Builder for the subcommands of the command. Adding the same command under multiple
+         *         names always returns the same builder.
+         */
+        @Nonnull
+        public Builder<T> add(@Nonnull String name, @Nonnull T value) {
+            var node = root;
+            for (int i = 0; i < name.length(); i++) {
+                node = node.next.computeIfAbsent(Character.toLowerCase(name.charAt(i)), c -> new BuilderNode<>());
+            }
+
+            if (node.value == null) {
+                node.name = name;
+                node.value = value;
+                size++;
+            }
+
+            return children.computeIfAbsent(value, v -> new Builder<>());
+        }
+
+        @Nonnull
+        public CommandTrie<T> build() {
+            var built = new IdentityHashMap<Builder<T>, CommandTrie<T>>();
+            return build(built);
+        }
+
+        private CommandTrie<T> build(Map<Builder<T>, CommandTrie<T>> built) {
+            var existing = built.get(this);
+            if (existing != null) {
+                return existing;
+            }
+
+            // Subcommands are built first, so every entry is complete before anything can see it.
+            // Command trees have no cycles, aliases just share the same builder.
+            var childTries = new IdentityHashMap<T, CommandTrie<T>>();
+            for (var child : children.entrySet()) {
+                childTries.put(child.getKey(), child.getValue().build(built));
+            }
+
+            var trie = new CommandTrie<>(root.build(childTries), size);
+            built.put(this, trie);
+            return trie;
+        }
+    }
+
+    private static final class BuilderNode<T> {
+        private final TreeMap<Character, BuilderNode<T>> next = new TreeMap<>();
+        private String name;
+        private T value;
+
+        private Node<T> build(Map<T, CommandTrie<T>> children) {
+            var keys = new char[next.size()];
+            Node<T>[] nodes = Node.array(next.size());
+            int i = 0;
+            for (var child : next.entrySet()) {
+                keys[i] = child.getKey();
+                nodes[i] = child.getValue().build(children);
+                i++;
+            }
+
+            var entry = value == null ? null : new Entry<>(name, value, children.get(value));
+            return new Node<>(keys, nodes, entry);
+        }
+    }
+}
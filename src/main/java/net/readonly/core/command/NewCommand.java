@@ -1,9 +1,9 @@
 package net.readonly.core.command;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import net.readonly.core.command.meta.Alias;
@@ -17,8 +17,7 @@ import net.readonly.core.modules.commands.help.HelpContent;
 
 // common superclass for either commands or options
 public abstract class NewCommand {
-    private final Map<String, NewCommand> children = new HashMap<>();
-    private final Map<String, String> childrenAliases = new HashMap<>();
+    private final List<NewCommand> children = new ArrayList<>();
     private final String name;
     private final List<String> aliases;
     private final CommandCategory category;
@@ -100,27 +99,22 @@ public abstract class NewCommand {
         return help;
     }
 
+    public List<NewCommand> children() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Runs this command. Subcommands are resolved beforehand, through the {@link CommandTrie}.
+     *
+     * @param ctx Context, with the arguments positioned after the command name.
+     */
     public final void execute(NewContext ctx) {
-        var args = ctx.arguments();
-        if (args.hasNext()) {
-            var name = args.next().getValue().toLowerCase();
-            var child = children.get(name);
-            if (child == null) {
-                child = children.get(childrenAliases.getOrDefault(name, ""));
-            }
-            if (child != null) {
-                child.execute(ctx);
-                return;
-            }
-            args.back();
-        }
         process(ctx);
     }
 
     void registerParent(NewCommand parent) {
         this.parent = parent;
-        parent.children.put(name, this);
-        aliases.forEach(a -> parent.childrenAliases.put(a, name));
+        parent.children.add(this);
     }
 
     protected abstract void process(NewContext ctx);
@@ -38,12 +38,11 @@ import net.readonly.core.command.argument.ArgumentParseError;
 import net.readonly.core.command.argument.Arguments;
 import net.readonly.core.command.argument.MarkedBlock;
 import net.readonly.core.command.argument.Parser;
-import net.readonly.core.command.argument.split.StringSplitter;
+import net.readonly.core.command.processor.CommandTimer;
 import net.readonly.core.modules.commands.i18n.I18nContext;
+import net.readonly.utils.cmds.FormatTemplate;
 
 public class NewContext {
-    private static final StringSplitter SPLITTER = new StringSplitter();
-
     private final Message message;
     private final I18nContext i18n;
     private final Arguments args;
@@ -55,7 +54,11 @@ public class NewContext {
     }
 
     public NewContext(@Nonnull Message message, @Nonnull I18nContext i18n, @Nonnull String contentAfterPrefix) {
-        this(message, i18n, new Arguments(SPLITTER.split(contentAfterPrefix), 0));
+        this(message, i18n, ParsedMessage.parse(contentAfterPrefix));
+    }
+
+    public NewContext(@Nonnull Message message, @Nonnull I18nContext i18n, @Nonnull ParsedMessage parsed) {
+        this(message, i18n, new Arguments(parsed.tokens(), 0));
     }
 
     public Arguments arguments() {
@@ -251,43 +254,41 @@ public class NewContext {
     }
 
     public void send(Message message) {
-        getChannel().sendMessage(message).queue();
+        CommandTimer.queue(getChannel().sendMessage(message));
     }
 
     public void send(String message) {
-        getChannel().sendMessage(message).queue();
+        CommandTimer.queue(getChannel().sendMessage(message));
     }
 
     public void sendFile(byte[] bytes, String name) {
-        getChannel().sendFile(bytes, name).queue();
+        CommandTimer.queue(getChannel().sendFile(bytes, name));
     }
 
     public void sendFormat(String message, Object... format) {
-        getChannel().sendMessageFormat(message, format).queue();
+        CommandTimer.queue(getChannel().sendMessage(FormatTemplate.of(message).format(i18n.getLocale(), format)));
     }
 
     public void send(MessageEmbed embed) {
-        getChannel().sendMessage(embed).queue();
+        CommandTimer.queue(getChannel().sendMessage(embed));
     }
 
     public void sendLocalized(String localizedMessage, Object... args) {
-        getChannel().sendMessageFormat(i18n.get(localizedMessage), args).queue();
+        CommandTimer.queue(getChannel().sendMessage(i18n.format(localizedMessage, args)));
     }
 
     public void sendLocalized(String localizedMessage) {
-        getChannel().sendMessage(i18n.get(localizedMessage)).queue();
+        CommandTimer.queue(getChannel().sendMessage(i18n.get(localizedMessage)));
     }
 
     public void sendStripped(String message) {
-        getChannel().sendMessageFormat(message)
-                .allowedMentions(EnumSet.noneOf(Message.MentionType.class))
-                .queue();
+        CommandTimer.queue(getChannel().sendMessageFormat(message)
+                .allowedMentions(EnumSet.noneOf(Message.MentionType.class)));
     }
 
     public void sendStrippedLocalized(String localizedMessage, Object... args) {
-        getChannel().sendMessageFormat(i18n.get(localizedMessage), args)
-                .allowedMentions(EnumSet.noneOf(Message.MentionType.class))
-                .queue();
+        CommandTimer.queue(getChannel().sendMessage(i18n.format(localizedMessage, args))
+                .allowedMentions(EnumSet.noneOf(Message.MentionType.class)));
     }
 
     public User retrieveUserById(String id) {
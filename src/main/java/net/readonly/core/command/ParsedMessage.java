@@ -0,0 +1,155 @@
+package net.readonly.core.command;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+
+import net.readonly.core.command.argument.split.SplitString;
+import net.readonly.core.command.argument.split.StringSplitter;
+import net.readonly.utils.StringUtils;
+
+/**
+ * A command message, split once and shared by everything handling it.
+ * <br>Holds the content after the prefix and where the command name ends, so commands are resolved on the content
+ * itself. The command name and arguments strings, the token split used by {@link NewContext} and the quote-aware
+ * split used by {@link net.readonly.core.modules.commands.base.Context Context} are computed the first time they're
+ * needed, and reused after that.
+ */
+public final class ParsedMessage {
+    private static final StringSplitter SPLITTER = new StringSplitter();
+
+    private final String content;
+    private final int nameEnd;
+    private final int argumentsStart;
+    private volatile String commandName;
+    private volatile String arguments;
+    private volatile SplitString[] tokens;
+    private volatile String[] quotedArguments;
+
+    private ParsedMessage(String content, int nameEnd, int argumentsStart) {
+        this.content = content;
+        this.nameEnd = nameEnd;
+        this.argumentsStart = argumentsStart;
+    }
+
+    /**
+     * Parses a message, splitting the command name from its arguments on the first run of whitespace.
+     *
+     * @param contentAfterPrefix Raw message content, without the prefix.
+     *
+     * @return The parsed message.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static ParsedMessage parse(@Nonnull String contentAfterPrefix) {
+        var length = contentAfterPrefix.length();
+        var nameEnd = 0;
+        while (nameEnd < length && !isWhitespace(contentAfterPrefix.charAt(nameEnd))) {
+            nameEnd++;
+        }
+
+        var argumentsStart = nameEnd;
+        while (argumentsStart < length && isWhitespace(contentAfterPrefix.charAt(argumentsStart))) {
+            argumentsStart++;
+        }
+
+        return new ParsedMessage(contentAfterPrefix, nameEnd, argumentsStart);
+    }
+
+    /**
+     * Wraps arguments that have no command name in front, such as the ones passed to subcommands.
+     *
+     * @param arguments The arguments.
+     *
+     * @return The parsed message, with an empty command name.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static ParsedMessage ofArguments(@Nonnull String arguments) {
+        var parsed = new ParsedMessage(arguments, 0, 0);
+        parsed.arguments = arguments;
+        return parsed;
+    }
+
+    /**
+     * @return The content after the prefix, command name included.
+     */
+    @Nonnull
+    public String content() {
+        return content;
+    }
+
+    /**
+     * @return Index after the command name on the {@link #content() content}, which starts at 0.
+     */
+    public int nameEnd() {
+        return nameEnd;
+    }
+
+    /**
+     * Copies the command name out of the content. Commands are resolved by {@link #nameEnd()} instead,
+     * this is only for whatever needs the name as a string.
+     *
+     * @return The command name, as typed.
+     */
+    @Nonnull
+    public String commandName() {
+        var commandName = this.commandName;
+        if (commandName == null) {
+            commandName = content.substring(0, nameEnd);
+            this.commandName = commandName;
+        }
+
+        return commandName;
+    }
+
+    /**
+     * @return The content after the command name and the whitespace following it.
+     */
+    @Nonnull
+    public String arguments() {
+        var arguments = this.arguments;
+        if (arguments == null) {
+            arguments = content.substring(argumentsStart);
+            this.arguments = arguments;
+        }
+
+        return arguments;
+    }
+
+    /**
+     * The whole content, split on whitespace. Shared, must not be modified.
+     *
+     * @return The tokens of the content, command name included.
+     */
+    @Nonnull
+    public SplitString[] tokens() {
+        var tokens = this.tokens;
+        if (tokens == null) {
+            tokens = SPLITTER.split(content);
+            this.tokens = tokens;
+        }
+
+        return tokens;
+    }
+
+    /**
+     * The arguments, split with {@link StringUtils#advancedSplitArgs(String, int)}. Shared, must not be modified.
+     *
+     * @return The quote-aware split of the arguments.
+     */
+    @Nonnull
+    public String[] quotedArguments() {
+        var quoted = this.quotedArguments;
+        if (quoted == null) {
+            quoted = StringUtils.advancedSplitArgs(arguments(), 0);
+            this.quotedArguments = quoted;
+        }
+
+        return quoted;
+    }
+
+    // Same as StringUtils.SPLIT_PATTERN.
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+}
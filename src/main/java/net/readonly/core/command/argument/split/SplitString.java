@@ -20,16 +20,21 @@ import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 
 /**
- * Represents a part of the result of splitting a string.
- * <br>Stores both the value and the previous whitespace, useful to rebuild the original string.
+ * A token of a split string. Only offsets into the original string are kept,
+ * the value and whitespace strings are created the first time they're asked for.
  */
-public final class SplitString {
-    private final String value;
-    private final String previousWhitespace;
+public final class SplitString implements CharSequence {
+    private final String source;
+    private final int whitespaceStart;
+    private final int start;
+    private final int end;
+    private String value;
 
-    SplitString(String value, String previousWhitespace) {
-        this.value = value;
-        this.previousWhitespace = previousWhitespace;
+    SplitString(String source, int whitespaceStart, int start, int end) {
+        this.source = source;
+        this.whitespaceStart = whitespaceStart;
+        this.start = start;
+        this.end = end;
     }
 
     /**
@@ -41,6 +46,12 @@ public final class SplitString {
     @Nonnull
     @CheckReturnValue
     public String getValue() {
+        var value = this.value;
+        if (value == null) {
+            value = source.substring(start, end);
+            this.value = value;
+        }
+
         return value;
     }
 
@@ -52,7 +63,7 @@ public final class SplitString {
     @Nonnull
     @CheckReturnValue
     public String getPreviousWhitespace() {
-        return previousWhitespace;
+        return source.substring(whitespaceStart, start);
     }
 
     /**
@@ -63,19 +74,59 @@ public final class SplitString {
     @Nonnull
     @CheckReturnValue
     public String getRawValue() {
-        return previousWhitespace + value;
+        return source.substring(whitespaceStart, end);
+    }
+
+    /**
+     * @return Index of the first character of this string on the original one.
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * @return Index after the last character of this string on the original one.
+     */
+    public int end() {
+        return end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + (end - start));
+        }
+
+        return source.charAt(start + index);
+    }
+
+    @Nonnull
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return getValue().subSequence(start, end);
     }
 
     @Override
     public int hashCode() {
-        return value.hashCode();
+        return getValue().hashCode();
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof SplitString && ((SplitString) obj).value.equals(value);
+        if (!(obj instanceof SplitString)) {
+            return false;
+        }
+
+        var other = (SplitString) obj;
+        return other.length() == length() && source.regionMatches(start, other.source, other.start, length());
     }
 
+    @Nonnull
     @Override
     public String toString() {
         return getValue();
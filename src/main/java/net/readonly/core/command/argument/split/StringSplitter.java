@@ -19,6 +19,7 @@ package net.readonly.core.command.argument.split;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
@@ -27,6 +28,8 @@ import java.util.regex.Pattern;
  */
 public class StringSplitter {
     private static final Pattern DEFAULT_PATTERN = Pattern.compile("\\s+");
+    // Token offsets (whitespace start, start, end) of the split in progress, reused across splits on the same thread.
+    private static final ThreadLocal<int[]> OFFSETS = ThreadLocal.withInitial(() -> new int[3 * 16]);
 
     private final Pattern pattern;
 
@@ -76,16 +79,60 @@ public class StringSplitter {
     @Nonnull
     @CheckReturnValue
     public SplitString[] split(@Nonnull String string) {
-        String[] values = pattern.split(string);
-        int remove = values.length > 0 && values[0].isEmpty() ? 1 : 0; //1 if first string is empty
-        int effectiveLength = values.length - remove;
-        SplitString[] strings = new SplitString[effectiveLength];
-        String lookup = string;
-        for(int i = remove; i < values.length; i++) {
-            String value = values[i];
-            int startIdx = lookup.indexOf(value);
-            strings[i - remove] = new SplitString(value, lookup.substring(0, startIdx));
-            lookup = lookup.substring(startIdx + value.length());
+        var offsets = OFFSETS.get();
+        int count = 0;
+        if (pattern == DEFAULT_PATTERN) {
+            // Same as the pattern, without going through the regex engine.
+            int whitespaceStart = 0;
+            int i = 0;
+            int length = string.length();
+            while (i < length) {
+                int start = i;
+                while (start < length && isWhitespace(string.charAt(start))) {
+                    start++;
+                }
+                if (start == length) {
+                    break;
+                }
+
+                int end = start + 1;
+                while (end < length && !isWhitespace(string.charAt(end))) {
+                    end++;
+                }
+
+                offsets = record(offsets, count++, whitespaceStart, start, end);
+                whitespaceStart = end;
+                i = end;
+            }
+        } else {
+            // Mirrors Pattern#split: a leading empty token is dropped, and so are trailing ones.
+            var matcher = pattern.matcher(string);
+            int whitespaceStart = 0;
+            int start = 0;
+            int lastNonEmpty = 0;
+            while (matcher.find()) {
+                if (matcher.end() == 0) {
+                    continue;
+                }
+                if (matcher.start() > 0 || start > 0) {
+                    offsets = record(offsets, count++, whitespaceStart, start, matcher.start());
+                    if (matcher.start() > start) {
+                        lastNonEmpty = count;
+                    }
+                }
+                whitespaceStart = matcher.start();
+                start = matcher.end();
+            }
+            if (start < string.length()) {
+                offsets = record(offsets, count++, whitespaceStart, start, string.length());
+                lastNonEmpty = count;
+            }
+            count = lastNonEmpty;
+        }
+
+        var strings = new SplitString[count];
+        for (int i = 0; i < count; i++) {
+            strings[i] = new SplitString(string, offsets[i * 3], offsets[i * 3 + 1], offsets[i * 3 + 2]);
         }
         return strings;
     }
@@ -120,4 +167,21 @@ public class StringSplitter {
     public String[] rawSplit(@Nonnull String string, @Nonnegative int limit) {
         return pattern.split(string, limit);
     }
+
+    private static int[] record(int[] offsets, int index, int whitespaceStart, int start, int end) {
+        int base = index * 3;
+        if (base + 3 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            OFFSETS.set(offsets);
+        }
+        offsets[base] = whitespaceStart;
+        offsets[base + 1] = start;
+        offsets[base + 2] = end;
+        return offsets;
+    }
+
+    // The characters matched by \s, without UNICODE_CHARACTER_CLASS.
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
 }
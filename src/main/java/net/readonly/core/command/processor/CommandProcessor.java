@@ -16,58 +16,83 @@
 
 package net.readonly.core.command.processor;
 
-import static net.readonly.utils.StringUtils.splitArgs;
-
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import net.readonly.BotData;
 import net.readonly.core.CommandRegistry;
+import net.readonly.core.command.ParsedMessage;
+import net.readonly.utils.exports.CommandLatency.Phase;
 
 public class CommandProcessor {
     public static final CommandRegistry REGISTRY = new CommandRegistry();
+    public static final PrefixIndex PREFIXES = new PrefixIndex(BotData.config().getGuildCacheSize());
+    public static final LanguageIndex LANGUAGES = new LanguageIndex(BotData.config().getGuildCacheSize());
 
-    public boolean run(GuildMessageReceivedEvent event) {
-        final var config = BotData.config();
-        // The command executed, in raw form.
-        var rawCmd = event.getMessage().getContentRaw();
-        // Lower-case raw cmd check, only used for prefix checking.
-        final var lowerRawCmd = rawCmd.toLowerCase();
+    // Rebuilt whenever the prefix or the self user change, which is pretty much never.
+    private volatile PrefixMatcher prefixMatcher;
 
-        String prefix = config.getPrefix();
-        // Possible mentions
-        boolean isMention = false;
-        String[] mentionPrefixes = {
-                "<@%s> ".formatted(event.getJDA().getSelfUser().getId()),
-                "<@!%s> ".formatted(event.getJDA().getSelfUser().getId())
-        };
+    /**
+     * Runs the command on a message, if there's any.
+     *
+     * @param event The message.
+     * @param receivedAt When the message was received from the gateway, from {@link System#nanoTime()}.
+     *
+     * @return Whether the message had a prefix.
+     */
+    public boolean run(GuildMessageReceivedEvent event, long receivedAt) {
+        var timer = CommandTimer.begin(receivedAt);
+        try {
+            // The command executed, in raw form.
+            var rawCmd = event.getMessage().getContentRaw();
+            var matcher = prefixMatcher(BotData.config().getPrefix(), event.getJDA().getSelfUser().getIdLong());
 
-        // What prefix did this person use.
-        String usedPrefix = null;
-        for (String mention : mentionPrefixes) {
-            if (lowerRawCmd.startsWith(mention)) {
-                usedPrefix = mention;
-                isMention = true;
+            // What prefix did this person use.
+            String usedPrefix = matcher.match(rawCmd, PREFIXES.get(event.getGuild().getIdLong()));
+            if (usedPrefix == null) {
+                return false;
             }
-        }
 
-        if (lowerRawCmd.startsWith(prefix)) {
-        	usedPrefix = prefix;
-        }
+            boolean isMention = matcher.isMention(usedPrefix);
+            timer.lap(Phase.PREFIX);
 
+            // Remove prefix from arguments, the rest is split only once and shared by whoever handles the command.
+            var parsed = ParsedMessage.parse(rawCmd.substring(usedPrefix.length()));
+            timer.lap(Phase.PARSE);
 
-        // Remove prefix from arguments.
-        if (usedPrefix != null && lowerRawCmd.startsWith(usedPrefix.toLowerCase())) {
-            rawCmd = rawCmd.substring(usedPrefix.length());
-        } else if (usedPrefix == null) {
-            return false;
+            // Run the actual command here.
+            REGISTRY.process(event, parsed, LANGUAGES.get(event.getGuild().getIdLong()), usedPrefix, isMention);
+
+            return true;
+        } finally {
+            // Commands that returned early or blew up never reach finish.
+            timer.stop();
         }
+    }
 
-        // The command arguments to parse.
-        String[] parts = splitArgs(rawCmd, 2);
-        String cmdName = parts[0], content = parts[1];
+    /**
+     * Checks whether a message might be a command, without ever going to the database, so it's safe to call on the
+     * gateway threads. Messages from guilds whose prefix isn't indexed yet are let through, {@link #run} finds out.
+     *
+     * @param event The message.
+     *
+     * @return False if the message certainly isn't a command.
+     */
+    public boolean mightBeCommand(GuildMessageReceivedEvent event) {
+        var guildId = event.getGuild().getIdLong();
+        if (!PREFIXES.isIndexed(guildId)) {
+            return true;
+        }
+
+        var matcher = prefixMatcher(BotData.config().getPrefix(), event.getJDA().getSelfUser().getIdLong());
+        return matcher.match(event.getMessage().getContentRaw(), PREFIXES.get(guildId)) != null;
+    }
 
-        // Run the actual command here.
-        REGISTRY.process(event, cmdName, content, usedPrefix, isMention);
+    private PrefixMatcher prefixMatcher(String prefix, long selfUserId) {
+        var matcher = prefixMatcher;
+        if (matcher == null || !matcher.matches(prefix, selfUserId)) {
+            matcher = new PrefixMatcher(prefix, selfUserId);
+            prefixMatcher = matcher;
+        }
 
-        return true;
+        return matcher;
     }
 }
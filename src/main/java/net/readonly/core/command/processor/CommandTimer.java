@@ -0,0 +1,187 @@
+package net.readonly.core.command.processor;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import io.prometheus.client.Histogram;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.readonly.utils.exports.CommandLatency.Phase;
+import net.readonly.utils.exports.Metrics;
+
+/**
+ * Splits the time a command takes into {@link Phase phases}, for the thread running it.
+ * <br>Each {@link #lap(Phase)} charges the time since the previous lap to a phase, so the phases add up to the total.
+ * Replies enqueued through {@link #queue(RestAction)} are charged to {@link Phase#REPLY} and taken out of whatever
+ * phase they happened in, so a slow handler and a slow send show up separately.
+ * <br>The timer also follows a command from the moment its message was received until Discord acknowledges its
+ * replies, on {@link Metrics#REPLY_LATENCY}:
+ * <ul>
+ *     <li>{@code receipt_to_dispatch}: waiting on the guild lanes and the command pool, for messages with a prefix.</li>
+ *     <li>{@code dispatch_to_handler}: prefix matching, resolving, parsing and permission checks.</li>
+ *     <li>{@code enqueue_to_ack}: a reply waiting on JDA's rate-limit queue, plus the request itself.</li>
+ *     <li>{@code handler_to_ack} and {@code receipt_to_ack}: up to the first reply being acknowledged.</li>
+ * </ul>
+ * Replies are correlated with their command by the callbacks passed to JDA, which are created on the command thread.
+ * JDA's own pass-context still wraps them, so failures keep the stack trace of the send call.
+ * <br>Timers are reused per thread, nothing is allocated per command besides the reply callbacks.
+ */
+public final class CommandTimer {
+    private static final ThreadLocal<CommandTimer> CURRENT = ThreadLocal.withInitial(CommandTimer::new);
+    private static final Phase[] PHASES = Phase.values();
+    private static final Histogram.Child RECEIPT_TO_DISPATCH = Metrics.REPLY_LATENCY.labels("receipt_to_dispatch");
+    private static final Histogram.Child DISPATCH_TO_HANDLER = Metrics.REPLY_LATENCY.labels("dispatch_to_handler");
+    private static final Histogram.Child ENQUEUE_TO_ACK = Metrics.REPLY_LATENCY.labels("enqueue_to_ack");
+    private static final Histogram.Child HANDLER_TO_ACK = Metrics.REPLY_LATENCY.labels("handler_to_ack");
+    private static final Histogram.Child RECEIPT_TO_ACK = Metrics.REPLY_LATENCY.labels("receipt_to_ack");
+
+    private final long[] phases = new long[PHASES.length];
+    private long receivedAt;
+    private long start;
+    private long last;
+    private long handlerAt;
+    // Only the first reply of a command counts towards what the user waited for.
+    private boolean replied;
+    // Reply time spent since the last lap, not part of the next phase.
+    private long pendingReply;
+    private boolean running;
+
+    private CommandTimer() { }
+
+    /**
+     * Starts timing a command on this thread, dropping whatever was being timed before.
+     *
+     * @param receivedAt When the message was received from the gateway, from {@link System#nanoTime()}.
+     *
+     * @return The timer for this thread.
+     */
+    public static CommandTimer begin(long receivedAt) {
+        var timer = CURRENT.get();
+        timer.receivedAt = receivedAt;
+        timer.start = timer.last = timer.handlerAt = System.nanoTime();
+        timer.pendingReply = 0;
+        timer.replied = false;
+        timer.running = true;
+        Arrays.fill(timer.phases, -1);
+        return timer;
+    }
+
+    public static CommandTimer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Charges the time since the last lap to a phase. Laps on the same phase add up.
+     *
+     * @param phase The phase that just ended.
+     */
+    public void lap(Phase phase) {
+        if (!running) {
+            return;
+        }
+
+        // Only messages that turned out to be commands count towards the dispatch wait.
+        if (phase == Phase.PREFIX) {
+            observe(RECEIPT_TO_DISPATCH, start - receivedAt);
+        }
+
+        var now = System.nanoTime();
+        add(phase, now - last - pendingReply);
+        last = now;
+        pendingReply = 0;
+    }
+
+    /**
+     * Marks the command handler as about to run. Laps aren't affected.
+     */
+    public void handler() {
+        if (!running) {
+            return;
+        }
+
+        handlerAt = System.nanoTime();
+        observe(DISPATCH_TO_HANDLER, handlerAt - start);
+    }
+
+    /**
+     * Records every phase that was lapped, plus the total, and stops the timer.
+     *
+     * @param command The command name, as reported on the command counter.
+     * @param category The category of the command.
+     */
+    public void finish(String command, String category) {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        var total = System.nanoTime() - start;
+        phases[Phase.TOTAL.ordinal()] = total;
+        Metrics.COMMAND_PHASE_LATENCY.record(command, category, phases);
+        Metrics.COMMAND_LATENCY.observe(total / 1_000_000_000d);
+    }
+
+    /**
+     * Stops the timer without recording anything, for commands that failed or never ran.
+     * Replies sent afterwards on this thread aren't attributed to the command anymore.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    private void add(Phase phase, long nanos) {
+        var index = phase.ordinal();
+        phases[index] = Math.max(0, phases[index]) + Math.max(0, nanos);
+    }
+
+    private void reply(long nanos) {
+        if (running) {
+            add(Phase.REPLY, nanos);
+            pendingReply += nanos;
+        }
+    }
+
+    public static <T> void queue(RestAction<T> action) {
+        queue(action, null, null);
+    }
+
+    /**
+     * Queues a command reply, timing how long the enqueue takes and, once Discord answers, how long the user waited.
+     * <br>Outside of a command this is a plain {@link RestAction#queue(Consumer, Consumer)}.
+     *
+     * @param action The reply.
+     * @param success Called with the result, or null for JDA's default.
+     * @param failure Called with the error, or null for JDA's default.
+     */
+    public static <T> void queue(RestAction<T> action, Consumer<? super T> success, Consumer<? super Throwable> failure) {
+        var timer = CURRENT.get();
+        if (!timer.running) {
+            action.queue(success, failure);
+            return;
+        }
+
+        var enqueuedAt = System.nanoTime();
+        var receivedAt = timer.receivedAt;
+        var handlerAt = timer.handlerAt;
+        var first = !timer.replied;
+        timer.replied = true;
+
+        action.queue(result -> {
+            var now = System.nanoTime();
+            observe(ENQUEUE_TO_ACK, now - enqueuedAt);
+            if (first) {
+                observe(HANDLER_TO_ACK, now - handlerAt);
+                observe(RECEIPT_TO_ACK, now - receivedAt);
+            }
+
+            if (success != null) {
+                success.accept(result);
+            }
+        }, failure);
+
+        timer.reply(System.nanoTime() - enqueuedAt);
+    }
+
+    private static void observe(Histogram.Child histogram, long nanos) {
+        histogram.observe(Math.max(0, nanos) / 1_000_000_000d);
+    }
+}
@@ -0,0 +1,59 @@
+package net.readonly.core.command.processor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import net.readonly.BotData;
+import net.readonly.core.modules.commands.i18n.I18nContext;
+
+/**
+ * Language contexts by guild id, so running a command never has to go to the database to find the guild language.
+ * <br>Works like {@link PrefixIndex}: guilds are loaded on their first command, and the least used ones are dropped
+ * once {@code maximumSize} guilds are indexed. Whatever changes a guild language must call {@link #update(long, String)}.
+ */
+public class LanguageIndex {
+    private final LoadingCache<Long, I18nContext> languages;
+
+    public LanguageIndex(long maximumSize) {
+        this.languages = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public I18nContext load(@Nonnull Long guildId) {
+                        return I18nContext.of(BotData.db().getGuild(String.valueOf(guildId)).getData().getLang());
+                    }
+                });
+    }
+
+    /**
+     * @param guildId The guild to look up.
+     *
+     * @return The language context of the guild. Shared, the same instance is returned for every guild with the same language.
+     */
+    @Nonnull
+    public I18nContext get(long guildId) {
+        return languages.getUnchecked(guildId);
+    }
+
+    /**
+     * Replaces the indexed language of a guild. Call after the new language is saved.
+     *
+     * @param guildId The guild which language changed.
+     * @param language The new language.
+     */
+    public void update(long guildId, @Nullable String language) {
+        languages.put(guildId, I18nContext.of(language));
+    }
+
+    public void invalidate(long guildId) {
+        languages.invalidate(guildId);
+    }
+
+    public long size() {
+        return languages.size();
+    }
+}
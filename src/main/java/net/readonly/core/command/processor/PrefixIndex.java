@@ -0,0 +1,80 @@
+package net.readonly.core.command.processor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import net.readonly.BotData;
+
+/**
+ * Custom prefixes by guild id, so checking a message for a guild prefix never has to go to the database.
+ * <br>Guilds are loaded the first time one of their messages is seen, and the least used ones are dropped
+ * once {@code maximumSize} guilds are indexed. Whatever changes a guild prefix must call {@link #update(long, String)}.
+ */
+public class PrefixIndex {
+    // Guava caches can't hold null, this stands for "no custom prefix".
+    private static final String NONE = "";
+
+    private final LoadingCache<Long, String> prefixes;
+
+    public PrefixIndex(long maximumSize) {
+        this.prefixes = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public String load(@Nonnull Long guildId) {
+                        return normalize(BotData.db().getGuild(String.valueOf(guildId)).getData().getPrefix());
+                    }
+                });
+    }
+
+    /**
+     * @param guildId The guild to look up.
+     *
+     * @return The guild's custom prefix, or null if it uses the default one.
+     */
+    @Nullable
+    public String get(long guildId) {
+        var prefix = prefixes.getUnchecked(guildId);
+        return prefix == NONE ? null : prefix;
+    }
+
+    /**
+     * @param guildId The guild to look up.
+     *
+     * @return Whether the guild is indexed, meaning {@link #get(long)} won't go to the database.
+     */
+    public boolean isIndexed(long guildId) {
+        return prefixes.getIfPresent(guildId) != null;
+    }
+
+    /**
+     * Replaces the indexed prefix of a guild. Call after the new prefix is saved.
+     *
+     * @param guildId The guild which prefix changed.
+     * @param prefix The new prefix.
+     */
+    public void update(long guildId, @Nullable String prefix) {
+        prefixes.put(guildId, normalize(prefix));
+    }
+
+    public void invalidate(long guildId) {
+        prefixes.invalidate(guildId);
+    }
+
+    public long size() {
+        return prefixes.size();
+    }
+
+    private static String normalize(String prefix) {
+        // A guild "custom" prefix equal to the default one doesn't need checking twice.
+        if (prefix == null || prefix.isEmpty() || prefix.equals(BotData.config().getPrefix())) {
+            return NONE;
+        }
+
+        return prefix;
+    }
+}
@@ -0,0 +1,89 @@
+package net.readonly.core.command.processor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Finds which prefix, if any, a message starts with, without copying the message.
+ * <br>Mention prefixes depend on the self user, so they're built once per self user instead of once per message.
+ * Most messages aren't commands, and those are usually rejected by looking at the first character alone.
+ */
+public final class PrefixMatcher {
+    private final String prefix;
+    private final long selfUserId;
+    private final String mention;
+    private final String nickMention;
+
+    public PrefixMatcher(@Nonnull String prefix, long selfUserId) {
+        this.prefix = prefix;
+        this.selfUserId = selfUserId;
+        this.mention = "<@" + selfUserId + "> ";
+        this.nickMention = "<@!" + selfUserId + "> ";
+    }
+
+    /**
+     * @param content The raw message content.
+     *
+     * @return The prefix the message starts with, or null if it's not a command.
+     *         The returned string is the exact instance held by this matcher.
+     */
+    @Nullable
+    public String match(@Nonnull String content) {
+        return match(content, null);
+    }
+
+    /**
+     * @param content The raw message content.
+     * @param guildPrefix The guild's custom prefix, checked before the default one. Can be null.
+     *
+     * @return The prefix the message starts with, or null if it's not a command.
+     *         Other than the guild prefix, the returned string is the exact instance held by this matcher.
+     */
+    @Nullable
+    public String match(@Nonnull String content, @Nullable String guildPrefix) {
+        if (content.isEmpty()) {
+            return null;
+        }
+
+        if (guildPrefix != null && startsWithIgnoreCase(content, guildPrefix)) {
+            return guildPrefix;
+        }
+
+        if (startsWithIgnoreCase(content, prefix)) {
+            return prefix;
+        }
+
+        if (content.charAt(0) != '<') {
+            return null;
+        }
+
+        // Mentions are all digits, no need to ignore case.
+        if (content.startsWith(mention)) {
+            return mention;
+        }
+
+        if (content.startsWith(nickMention)) {
+            return nickMention;
+        }
+
+        return null;
+    }
+
+    /**
+     * @param usedPrefix A prefix returned by {@link #match(String)}.
+     *
+     * @return Whether the prefix is one of the mention prefixes.
+     */
+    public boolean isMention(@Nullable String usedPrefix) {
+        return usedPrefix == mention || usedPrefix == nickMention;
+    }
+
+    public boolean matches(@Nonnull String prefix, long selfUserId) {
+        return this.selfUserId == selfUserId && this.prefix.equals(prefix);
+    }
+
+    private static boolean startsWithIgnoreCase(String content, String prefix) {
+        var length = prefix.length();
+        return length != 0 && content.length() >= length && content.regionMatches(true, 0, prefix, 0, length);
+    }
+}
@@ -0,0 +1,69 @@
+package net.readonly.core.executor;
+
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.readonly.config.Config;
+
+/**
+ * Runs commands (and other work coming from the gateway) off the JDA threads.
+ * <br>Implementations are bounded: once full, tasks are handled according to a {@link ShedPolicy}.
+ * Time spent queued and time spent running are exported separately.
+ */
+public interface CommandExecutor extends Executor {
+    /**
+     * Name used to label this executor's metrics.
+     *
+     * @return The name of this executor.
+     */
+    @Nonnull
+    String name();
+
+    /**
+     * Returns the amount of tasks waiting to run.
+     *
+     * @return The amount of waiting tasks.
+     */
+    int queuedTasks();
+
+    /**
+     * Returns the amount of tasks currently running.
+     *
+     * @return The amount of running tasks.
+     */
+    int activeTasks();
+
+    void shutdown();
+
+    /**
+     * Creates the executor configured on the given config.
+     * <br>Falls back to a thread pool if virtual threads are requested but not available.
+     *
+     * @param name Name of the executor.
+     * @param config The bot config.
+     *
+     * @return A new executor.
+     */
+    @Nonnull
+    static CommandExecutor create(@Nonnull String name, @Nonnull Config config) {
+        var threads = config.getCommandThreads() > 0 ? config.getCommandThreads() : Runtime.getRuntime().availableProcessors() * 4;
+        var queueSize = config.getCommandQueueSize();
+        var policy = config.getCommandShedPolicy();
+
+        if (config.isVirtualThreads()) {
+            var executor = VirtualThreadCommandExecutor.create(name, threads + queueSize, policy);
+            if (executor != null) {
+                return executor;
+            }
+
+            Logger log = LoggerFactory.getLogger(CommandExecutor.class);
+            log.warn("Virtual threads requested but not supported by this JVM, using a thread pool");
+        }
+
+        return new PooledCommandExecutor(name, threads, queueSize, policy);
+    }
+}
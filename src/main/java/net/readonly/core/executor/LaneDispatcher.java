@@ -0,0 +1,176 @@
+package net.readonly.core.executor;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.readonly.utils.exports.Metrics;
+
+/**
+ * Runs tasks on a {@link CommandExecutor}, keeping tasks with the same key (a guild id) in order.
+ * <br>Every key gets its own lane, created when a task is queued for it and dropped as soon as it has nothing left
+ * to run, so only guilds with commands in flight take any memory. Each lane runs one task at a time, in submission
+ * order, while different lanes run in parallel. This means two commands from the same guild never race, a busy
+ * guild can only ever hold one executor thread, and it never delays commands from other guilds.
+ * <br>Each lane queues up to {@code maxDepth} tasks, anything over that is dropped. Lanes only ever run on the
+ * executor: if it can't take a lane, the task that would have started it is dropped instead.
+ */
+public class LaneDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(LaneDispatcher.class);
+    // Tasks ran by a lane before handing the thread back, so lanes sharing the executor get a turn.
+    private static final int DRAIN_BATCH = 16;
+
+    private final CommandExecutor executor;
+    private final ConcurrentMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxDepth;
+
+    public LaneDispatcher(@Nonnull CommandExecutor executor, int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Lane depth must be at least 1");
+        }
+
+        this.executor = executor;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Queues a task on the lane for the given key.
+     *
+     * @param key Ordering key, usually a guild id.
+     * @param task The task to run.
+     *
+     * @return False if the lane was full, or the executor couldn't take it, and the task was dropped.
+     */
+    public boolean execute(long key, @Nonnull Runnable task) {
+        var offer = new Offer();
+        // All lane state changes happen under the map's lock for the key, so a lane can't be evicted
+        // between being found here and getting the task.
+        lanes.compute(key, (k, lane) -> {
+            if (lane == null) {
+                lane = new Lane(k);
+            }
+
+            if (lane.tasks.size() >= maxDepth) {
+                return lane;
+            }
+
+            lane.tasks.add(task);
+            offer.accepted = true;
+            if (!lane.running) {
+                lane.running = true;
+                offer.start = lane;
+            }
+
+            return lane;
+        });
+
+        if (!offer.accepted) {
+            Metrics.LANE_SHED_TASKS.inc();
+            return false;
+        }
+
+        updateQueued(1);
+        if (offer.start == null) {
+            return true;
+        }
+
+        try {
+            executor.execute(offer.start);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // The lane wasn't running, so this task is the only one on it.
+            lanes.computeIfPresent(key, (k, lane) -> {
+                lane.tasks.remove(task);
+                lane.running = false;
+                return lane.tasks.isEmpty() ? null : lane;
+            });
+            updateQueued(-1);
+            Metrics.LANE_SHED_TASKS.inc();
+            return false;
+        }
+    }
+
+    /**
+     * @return The amount of lanes with tasks queued or running.
+     */
+    public int lanes() {
+        return lanes.size();
+    }
+
+    private void updateQueued(int delta) {
+        Metrics.LANE_QUEUE_DEPTH.set(queued.addAndGet(delta));
+        Metrics.LANE_ACTIVE.set(lanes.size());
+    }
+
+    /**
+     * A serial queue, drained on the executor by at most one thread at a time.
+     * <br>Guarded by the lock {@link #lanes} holds for its key.
+     */
+    final class Lane implements Runnable {
+        private final long key;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private boolean running;
+
+        private Lane(long key) {
+            this.key = key;
+        }
+
+        // Takes the next task, or evicts the lane if there's none left.
+        private Runnable poll() {
+            var next = new Runnable[1];
+            lanes.computeIfPresent(key, (k, lane) -> {
+                next[0] = lane.tasks.poll();
+                if (next[0] == null) {
+                    lane.running = false;
+                    return null;
+                }
+
+                return lane;
+            });
+
+            return next[0];
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                for (int i = 0; i < DRAIN_BATCH; i++) {
+                    var task = poll();
+                    if (task == null) {
+                        updateQueued(0);
+                        return;
+                    }
+
+                    updateQueued(-1);
+                    Metrics.LANE_TASKS.inc();
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        log.error("Uncaught exception on lane task", t);
+                    }
+                }
+
+                try {
+                    // Still marked as running, so nothing else schedules this lane meanwhile.
+                    executor.execute(this);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Keep going on this executor thread instead.
+                }
+            }
+        }
+    }
+
+    private static final class Offer {
+        boolean accepted;
+        Lane start;
+    }
+}
@@ -0,0 +1,59 @@
+package net.readonly.core.executor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import net.readonly.utils.exports.Metrics;
+
+/**
+ * {@link CommandExecutor} backed by a fixed amount of platform threads and a bounded queue.
+ * <br>Being a {@link ThreadPoolExecutor}, it can be registered on the
+ * {@link net.readonly.utils.exports.ThreadPoolCollector ThreadPoolCollector}.
+ */
+public class PooledCommandExecutor extends ThreadPoolExecutor implements CommandExecutor {
+    private final String name;
+
+    public PooledCommandExecutor(@Nonnull String name, int threads, int queueSize, @Nonnull ShedPolicy policy) {
+        super(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("ReadOnly Thread-%d").build(),
+                (task, pool) -> {
+                    if (TimedTask.pinned(task)) {
+                        throw new RejectedExecutionException("Executor " + name + " is full");
+                    }
+
+                    Metrics.EXECUTOR_SHED_TASKS.labels(name, policy.toString()).inc();
+                    policy.handler().rejectedExecution(task, pool);
+                }
+        );
+        this.name = name;
+        allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@Nonnull Runnable command) {
+        // DiscardOldestPolicy resubmits tasks that are already wrapped.
+        super.execute(command instanceof TimedTask ? command : new TimedTask(name, command));
+    }
+
+    @Override
+    @Nonnull
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int queuedTasks() {
+        return getQueue().size();
+    }
+
+    @Override
+    public int activeTasks() {
+        return getActiveCount();
+    }
+}
@@ -0,0 +1,51 @@
+package net.readonly.core.executor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * What to do with a task when the {@link CommandExecutor} queue is full.
+ * <br>Defaults to {@link #CALLER_RUNS}, the discarding policies silently drop work and have to be opted into.
+ * Guild lanes ignore the policy, they're rejected back to the {@link LaneDispatcher} instead.
+ */
+public enum ShedPolicy {
+    /**
+     * Runs the task on the submitting thread, slowing down whoever is submitting.
+     */
+    CALLER_RUNS(new ThreadPoolExecutor.CallerRunsPolicy()),
+    /**
+     * Drops the task being submitted.
+     */
+    DISCARD_NEWEST(new ThreadPoolExecutor.DiscardPolicy()),
+    /**
+     * Drops the task that has been waiting the longest, and queues the new one.
+     * <br>Pinned tasks (lanes) are never dropped, if nothing else is queued the new task is dropped instead.
+     */
+    DISCARD_OLDEST((task, pool) -> {
+        if (pool.isShutdown()) {
+            return;
+        }
+
+        for (var queued : pool.getQueue()) {
+            if (!TimedTask.pinned(queued) && pool.getQueue().remove(queued)) {
+                pool.execute(task);
+                return;
+            }
+        }
+    });
+
+    private final RejectedExecutionHandler handler;
+
+    ShedPolicy(RejectedExecutionHandler handler) {
+        this.handler = handler;
+    }
+
+    public RejectedExecutionHandler handler() {
+        return handler;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
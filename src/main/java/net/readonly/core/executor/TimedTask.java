@@ -0,0 +1,44 @@
+package net.readonly.core.executor;
+
+import net.readonly.utils.exports.Metrics;
+
+/**
+ * Wraps a task submitted to a {@link CommandExecutor}, reporting how long it waited to be picked
+ * up and how long it ran.
+ */
+class TimedTask implements Runnable {
+    private static final double NANOSECONDS_PER_SECOND = 1_000_000_000D;
+
+    private final String executor;
+    private final Runnable task;
+    private final long submitted = System.nanoTime();
+
+    TimedTask(String executor, Runnable task) {
+        this.executor = executor;
+        this.task = task;
+    }
+
+    /**
+     * Whether this task can't be shed. Lanes hold the tasks queued on them, dropping a lane would silently
+     * drop all of those and leave the lane stuck, so lanes are rejected back to the {@link LaneDispatcher} instead.
+     * They're never ran by the caller either, which is usually a JDA thread.
+     */
+    boolean pinned() {
+        return task instanceof LaneDispatcher.Lane;
+    }
+
+    static boolean pinned(Runnable task) {
+        return task instanceof TimedTask && ((TimedTask) task).pinned();
+    }
+
+    @Override
+    public void run() {
+        var start = System.nanoTime();
+        Metrics.EXECUTOR_QUEUE_WAIT.labels(executor).observe((start - submitted) / NANOSECONDS_PER_SECOND);
+        try {
+            task.run();
+        } finally {
+            Metrics.EXECUTOR_EXECUTION_TIME.labels(executor).observe((System.nanoTime() - start) / NANOSECONDS_PER_SECOND);
+        }
+    }
+}
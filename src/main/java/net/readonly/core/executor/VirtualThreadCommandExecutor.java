@@ -0,0 +1,100 @@
+package net.readonly.core.executor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.readonly.utils.exports.Metrics;
+
+/**
+ * {@link CommandExecutor} that runs every task on its own virtual thread.
+ * <br>There's no queue, so the bound applies to the amount of tasks in flight: once
+ * {@code maxTasks} are running, new ones are shed (or ran by the caller, with {@link ShedPolicy#CALLER_RUNS}).
+ */
+public class VirtualThreadCommandExecutor implements CommandExecutor {
+    private final String name;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxTasks;
+    private final ShedPolicy policy;
+
+    private VirtualThreadCommandExecutor(String name, ExecutorService executor, int maxTasks, ShedPolicy policy) {
+        this.name = name;
+        this.executor = executor;
+        this.permits = new Semaphore(maxTasks);
+        this.maxTasks = maxTasks;
+        this.policy = policy;
+    }
+
+    /**
+     * Creates a new executor, if the running JVM supports virtual threads.
+     *
+     * @return The executor, or null if virtual threads are not available.
+     */
+    @Nullable
+    public static VirtualThreadCommandExecutor create(@Nonnull String name, int maxTasks, @Nonnull ShedPolicy policy) {
+        try {
+            // Looked up reflectively, we still target JDKs without virtual threads.
+            var executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            return new VirtualThreadCommandExecutor(name, executor, maxTasks, policy);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(@Nonnull Runnable command) {
+        var task = new TimedTask(name, command);
+        if (!permits.tryAcquire()) {
+            if (task.pinned()) {
+                throw new RejectedExecutionException("Executor " + name + " is full");
+            }
+
+            Metrics.EXECUTOR_SHED_TASKS.labels(name, policy.toString()).inc();
+            if (policy == ShedPolicy.CALLER_RUNS) {
+                task.run();
+            }
+
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    @Nonnull
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int queuedTasks() {
+        // Every task gets a thread right away, nothing waits.
+        return 0;
+    }
+
+    @Override
+    public int activeTasks() {
+        return maxTasks - permits.availablePermits();
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,40 +2,36 @@ package net.readonly.core.listener;
 
 import java.util.Base64;
 import java.util.IllegalFormatException;
-import java.util.concurrent.ExecutorService;
 
-import org.jetbrains.annotations.NotNull;
-import org.json.JSONObject;
+import javax.annotation.Nonnull;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.primitives.Longs;
 
-import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.Permission;
-import net.dv8tion.jda.api.events.GenericEvent;
 import net.dv8tion.jda.api.events.ReadyEvent;
 import net.dv8tion.jda.api.events.http.HttpRequestEvent;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import net.dv8tion.jda.api.exceptions.PermissionException;
-import net.dv8tion.jda.api.hooks.EventListener;
-import net.readonly.BotData;
 import net.readonly.core.command.processor.CommandProcessor;
+import net.readonly.core.executor.LaneDispatcher;
 import net.readonly.database.InitDatabase;
 import net.readonly.utils.EmoteReference;
 import net.readonly.utils.exports.Metrics;
 
-public class BotListener implements EventListener {
+public class BotListener implements EventRouter.Subscriber {
 	private static final Logger log = LoggerFactory.getLogger(BotListener.class);
     private static int commandTotal = 0;
     
     private final CommandProcessor commandProcessor;
-    private final ExecutorService threadPool;
+    private final LaneDispatcher lanes;
     //private final Cache<Long, Optional<CachedMessage>> messageCache;
     
-    public BotListener(CommandProcessor processor, ExecutorService threadPool) {
+    public BotListener(CommandProcessor processor, LaneDispatcher lanes) {
         this.commandProcessor = processor;
-        this.threadPool = threadPool;
+        this.lanes = lanes;
     }
     
     public static int getCommandTotal() {
@@ -43,50 +39,61 @@ public class BotListener implements EventListener {
     }
     
     @Override
-    public void onEvent(@NotNull GenericEvent event) {
-        if (event instanceof ReadyEvent) {
-        	new InitDatabase((ReadyEvent) event);
-            threadPool.execute(() -> this.updateStats(event.getJDA()));
+    public void subscribe(@Nonnull EventRouter.Subscriptions subscriptions) {
+        subscriptions.on(ReadyEvent.class, this::onReady)
+                .on(GuildMessageReceivedEvent.class, this::onMessage)
+                .on(HttpRequestEvent.class, this::onHttpRequest);
+    }
+
+    private void onReady(ReadyEvent event) {
+        new InitDatabase(event);
+    }
+
+    private void onMessage(GuildMessageReceivedEvent msg) {
+        var receivedAt = System.nanoTime();
+        Metrics.RECEIVED_MESSAGES.inc();
+        // Ignore myself and bots.
+        // Technically ignoring oneself is an extra step -- we're a bot, and we ignore bots.
+        var isSelf = msg.getAuthor().getIdLong() == msg.getJDA().getSelfUser().getIdLong();
+        if (msg.getAuthor().isBot() || msg.isWebhookMessage() || isSelf) {
             return;
         }
-        if (event instanceof GuildMessageReceivedEvent) {
-        	Metrics.RECEIVED_MESSAGES.inc();
-            var msg = (GuildMessageReceivedEvent) event;
-            // Ignore myself and bots.
-            // Technically ignoring oneself is an extra step -- we're a bot, and we ignore bots.
-            var isSelf = msg.getAuthor().getIdLong() == msg.getJDA().getSelfUser().getIdLong();
-            if (msg.getAuthor().isBot() || msg.isWebhookMessage() || isSelf) {
-                return;
-            }
 
-            // Inserts a cached message into the cache. This only holds the id and the content, and is way lighter than saving the entire jda object.
-//            messageCache.put(msg.getMessage().getIdLong(), Optional.of(
-//                    new CachedMessage(msg.getGuild().getIdLong(), msg.getAuthor().getIdLong(), msg.getMessage().getContentDisplay()))
-//            );
+        // Inserts a cached message into the cache. This only holds the id and the content, and is way lighter than saving the entire jda object.
+//        messageCache.put(msg.getMessage().getIdLong(), Optional.of(
+//                new CachedMessage(msg.getGuild().getIdLong(), msg.getAuthor().getIdLong(), msg.getMessage().getContentDisplay()))
+//        );
 
-            // We can't talk here, so we don't need to run anything.
-            // Run this check before executing on the pool to avoid wasting a thread.
-            if (!msg.getChannel().canTalk()) {
-                return;
-            }
+        // Plain chat never makes it to the lanes.
+        if (!commandProcessor.mightBeCommand(msg)) {
+            return;
+        }
 
-            threadPool.execute(() -> onCommand(msg));
+        // We can't talk here, so we don't need to run anything.
+        // Run this check before executing on the pool to avoid wasting a thread.
+        if (!msg.getChannel().canTalk()) {
+            return;
         }
-        
-        if (event instanceof HttpRequestEvent) {
-            // We've fucked up big time if we reach this
-            final var httpRequestEvent = (HttpRequestEvent) event;
-            if (httpRequestEvent.isRateLimit()) {
-                log.error("!!! Reached 429 on: {}", httpRequestEvent.getRoute());
-                Metrics.HTTP_429_REQUESTS.inc();
-            }
-            Metrics.HTTP_REQUESTS.inc();
+
+        // Commands from the same guild run in the order they were received.
+        // Drops are counted by the lanes. Replying would only add REST calls while we're already overloaded.
+        if (!lanes.execute(msg.getGuild().getIdLong(), () -> onCommand(msg, receivedAt))) {
+            log.debug("Dropped message {} on guild {}, its lane is full or the executor is busy", msg.getMessageIdLong(), msg.getGuild().getId());
+        }
+    }
+
+    private void onHttpRequest(HttpRequestEvent event) {
+        // We've fucked up big time if we reach this
+        if (event.isRateLimit()) {
+            log.error("!!! Reached 429 on: {}", event.getRoute());
+            Metrics.HTTP_429_REQUESTS.inc();
         }
+        Metrics.HTTP_REQUESTS.inc();
     }
     
-    private void onCommand(GuildMessageReceivedEvent event) {
+    private void onCommand(GuildMessageReceivedEvent event, long receivedAt) {
         try {
-            if (commandProcessor.run(event)) {
+            if (commandProcessor.run(event, receivedAt)) {
                 commandTotal++;
             } 
         } catch (IllegalFormatException e) {
@@ -149,21 +156,4 @@ public class BotListener implements EventListener {
                 .replace('=', ' ')
                 .trim();
     }
-    
-    private void updateStats(JDA jda) {
-        if (jda.getStatus() == JDA.Status.INITIALIZED) {
-            return;
-        }
-
-        try(var jedis = BotData.getDefaultJedisPool().getResource()) {
-            var json = new JSONObject()
-                    .put("guild_count", jda.getGuildCache().size())
-                    .put("cached_users", jda.getUserCache().size())
-                    .put("gateway_ping", jda.getGatewayPing())
-                    .toString();
-
-            jedis.hset("stats-" + jda.getSelfUser().getId(), String.valueOf(jda.getSelfUser().getId()), json);
-            log.debug("Sent process shard stats to redis -> {}", json);
-        }
-    }
 }
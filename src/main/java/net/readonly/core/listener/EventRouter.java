@@ -0,0 +1,157 @@
+package net.readonly.core.listener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.prometheus.client.Counter;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.hooks.IEventManager;
+import net.readonly.utils.exports.Metrics;
+
+/**
+ * Event manager that routes each event straight to the handlers subscribed to its type.
+ * <br>Listeners implement {@link Subscriber} and say which event types they want, so they don't need to
+ * {@code instanceof} their way through every event JDA dispatches. The handlers for each event class are worked out
+ * once, the first time the class is seen, so dispatching is a single table lookup no matter how many listeners there
+ * are, and events nobody subscribed to are dropped right there.
+ * <br>Every event is counted on {@link Metrics#GATEWAY_EVENTS}, by type and by whether anything handled it.
+ * <br>Plain {@link EventListener}s are still accepted, as a subscription to every event.
+ */
+public class EventRouter implements IEventManager {
+    private static final Logger log = LoggerFactory.getLogger(EventRouter.class);
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final List<Object> listeners = new CopyOnWriteArrayList<>();
+    private volatile ClassValue<Route> routes = routes(List.of());
+
+    @Override
+    public void register(@Nonnull Object listener) {
+        var added = new ArrayList<Subscription>();
+        if (listener instanceof Subscriber) {
+            ((Subscriber) listener).subscribe(new Subscriptions(listener, added));
+        } else if (listener instanceof EventListener) {
+            added.add(new Subscription(listener, GenericEvent.class, ((EventListener) listener)::onEvent));
+        } else {
+            throw new IllegalArgumentException("Listener must implement EventRouter.Subscriber or EventListener");
+        }
+
+        synchronized (this) {
+            listeners.add(listener);
+            subscriptions.addAll(added);
+            routes = routes(new ArrayList<>(subscriptions));
+        }
+    }
+
+    @Override
+    public void unregister(@Nonnull Object listener) {
+        synchronized (this) {
+            listeners.remove(listener);
+            subscriptions.removeIf(subscription -> subscription.owner == listener);
+            routes = routes(new ArrayList<>(subscriptions));
+        }
+    }
+
+    @Override
+    public void handle(@Nonnull GenericEvent event) {
+        var route = routes.get(event.getClass());
+        route.counter.inc();
+
+        for (var handler : route.handlers) {
+            try {
+                handler.accept(event);
+            } catch (Throwable t) {
+                log.error("Uncaught exception handling {}", route.type, t);
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    public List<Object> getRegisteredListeners() {
+        return Collections.unmodifiableList(listeners);
+    }
+
+    private static ClassValue<Route> routes(List<Subscription> subscriptions) {
+        return new ClassValue<>() {
+            @Override
+            protected Route computeValue(Class<?> type) {
+                var handlers = new ArrayList<Consumer<GenericEvent>>();
+                for (var subscription : subscriptions) {
+                    if (subscription.type.isAssignableFrom(type)) {
+                        handlers.add(subscription.handler);
+                    }
+                }
+
+                // An array keeps dispatch to a plain loop. Generic arrays can't be created directly, and it
+                // only ever holds the handlers above, so the cast holds.
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                Consumer<GenericEvent>[] array = handlers.toArray(new Consumer[0]);
+                return new Route(type.getSimpleName(), array);
+            }
+        };
+    }
+
+    /**
+     * A listener that tells the router which events it wants.
+     */
+    public interface Subscriber {
+        void subscribe(@Nonnull Subscriptions subscriptions);
+    }
+
+    public static final class Subscriptions {
+        private final Object owner;
+        private final List<Subscription> subscriptions;
+
+        private Subscriptions(Object owner, List<Subscription> subscriptions) {
+            this.owner = owner;
+            this.subscriptions = subscriptions;
+        }
+
+        /**
+         * Subscribes to an event type, and every type extending it.
+         *
+         * @param type The event type.
+         * @param handler Called with every event of the type.
+         *
+         * @return This, for chaining.
+         */
+        @SuppressWarnings("unchecked")
+        public <T extends GenericEvent> Subscriptions on(@Nonnull Class<T> type, @Nonnull Consumer<? super T> handler) {
+            subscriptions.add(new Subscription(owner, type, event -> handler.accept((T) event)));
+            return this;
+        }
+    }
+
+    private static final class Subscription {
+        final Object owner;
+        final Class<?> type;
+        final Consumer<GenericEvent> handler;
+
+        Subscription(Object owner, Class<?> type, Consumer<GenericEvent> handler) {
+            this.owner = owner;
+            this.type = type;
+            this.handler = handler;
+        }
+    }
+
+    private static final class Route {
+        final String type;
+        final Consumer<GenericEvent>[] handlers;
+        final Counter.Child counter;
+
+        Route(String type, Consumer<GenericEvent>[] handlers) {
+            this.type = type;
+            this.handlers = handlers;
+            this.counter = Metrics.GATEWAY_EVENTS.labels(type, String.valueOf(handlers.length != 0));
+        }
+    }
+}
@@ -30,9 +30,8 @@ import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
 import net.dv8tion.jda.api.entities.MessageChannel;
-import net.dv8tion.jda.api.events.GenericEvent;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
-import net.dv8tion.jda.api.hooks.EventListener;
+import net.readonly.core.listener.EventRouter;
 import net.readonly.core.listener.operation.base.InteractiveOperation;
 import net.readonly.core.listener.operation.base.Operation;
 import net.readonly.utils.exports.Metrics;
@@ -42,7 +41,7 @@ import net.readonly.utils.exports.Metrics;
  * It can be used for all kind of stuff, like listening for user input, etc.
  */
 public class InteractiveOperations {
-    private static final EventListener LISTENER = new InteractiveListener();
+    private static final InteractiveListener LISTENER = new InteractiveListener();
 
     private static final ConcurrentHashMap<Long, List<RunningOperation>> OPS = new ConcurrentHashMap<>();
 
@@ -134,21 +133,20 @@ public class InteractiveOperations {
     /**
      * @return The listener used to check for the InteractiveOperations.
      */
-    public static EventListener listener() {
+    public static EventRouter.Subscriber listener() {
         return LISTENER;
     }
 
     /**
      * This class listens for all RunningOperation instances. Basically handles the operation run and termination procedures.
      */
-    public static class InteractiveListener implements EventListener {
+    public static class InteractiveListener implements EventRouter.Subscriber {
         @Override
-        public void onEvent(@Nonnull GenericEvent e) {
-            if (!(e instanceof GuildMessageReceivedEvent))
-                return;
-
-            GuildMessageReceivedEvent event = (GuildMessageReceivedEvent) e;
+        public void subscribe(@Nonnull EventRouter.Subscriptions subscriptions) {
+            subscriptions.on(GuildMessageReceivedEvent.class, this::onMessage);
+        }
 
+        private void onMessage(GuildMessageReceivedEvent event) {
             if (event.getAuthor().equals(event.getJDA().getSelfUser()))
                 return;
 
@@ -26,18 +26,17 @@ import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 
 import net.dv8tion.jda.api.entities.Message;
-import net.dv8tion.jda.api.events.GenericEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionRemoveAllEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionRemoveEvent;
-import net.dv8tion.jda.api.hooks.EventListener;
 import net.jodah.expiringmap.ExpiringMap;
+import net.readonly.core.listener.EventRouter;
 import net.readonly.core.listener.operation.base.Operation;
 import net.readonly.core.listener.operation.base.ReactionOperation;
 
 public final class ReactionOperations {
 
-    private static final EventListener LISTENER = new ReactionListener();
+    private static final ReactionListener LISTENER = new ReactionListener();
 
     private static final ExpiringMap<Long, RunningOperation> OPERATIONS = ExpiringMap.builder()
             .asyncExpirationListener((key, value) -> ((RunningOperation) value).operation.onExpire())
@@ -128,7 +127,7 @@ public final class ReactionOperations {
         return o.future;
     }
 
-    public static EventListener listener() {
+    public static EventRouter.Subscriber listener() {
         return LISTENER;
     }
 
@@ -140,74 +139,70 @@ public final class ReactionOperations {
         return r;
     }
 
-    public static class ReactionListener implements EventListener {
+    public static class ReactionListener implements EventRouter.Subscriber {
         @Override
-        public void onEvent(@Nonnull GenericEvent e) {
-
-            if (e instanceof MessageReactionAddEvent) {
-                MessageReactionAddEvent event = (MessageReactionAddEvent) e;
-                if (event.getReaction().isSelf())
-                    return;
+        public void subscribe(@Nonnull EventRouter.Subscriptions subscriptions) {
+            subscriptions.on(MessageReactionAddEvent.class, this::onReactionAdd)
+                    .on(MessageReactionRemoveEvent.class, this::onReactionRemove)
+                    .on(MessageReactionRemoveAllEvent.class, this::onReactionRemoveAll);
+        }
 
-                long messageId = event.getMessageIdLong();
-                RunningOperation o = OPERATIONS.get(messageId);
+        private void onReactionAdd(MessageReactionAddEvent event) {
+            if (event.getReaction().isSelf())
+                return;
 
-                if (o == null) {
-                    return;
-                }
+            long messageId = event.getMessageIdLong();
+            RunningOperation o = OPERATIONS.get(messageId);
 
-                int i = o.operation.add(event);
+            if (o == null) {
+                return;
+            }
 
-                if (i == Operation.COMPLETED) {
-                    OPERATIONS.remove(messageId);
-                    o.future.complete(null);
-                } else if (i == Operation.RESET_TIMEOUT) {
-                    OPERATIONS.resetExpiration(messageId);
-                }
+            int i = o.operation.add(event);
 
-                return;
+            if (i == Operation.COMPLETED) {
+                OPERATIONS.remove(messageId);
+                o.future.complete(null);
+            } else if (i == Operation.RESET_TIMEOUT) {
+                OPERATIONS.resetExpiration(messageId);
             }
+        }
 
-            if (e instanceof MessageReactionRemoveEvent) {
-                MessageReactionRemoveEvent event = (MessageReactionRemoveEvent) e;
-                if (event.getReaction().isSelf())
-                    return;
+        private void onReactionRemove(MessageReactionRemoveEvent event) {
+            if (event.getReaction().isSelf())
+                return;
 
-                long messageId = event.getMessageIdLong();
-                RunningOperation o = OPERATIONS.get(messageId);
+            long messageId = event.getMessageIdLong();
+            RunningOperation o = OPERATIONS.get(messageId);
 
-                if (o == null) {
-                    return;
-                }
+            if (o == null) {
+                return;
+            }
 
-                int i = o.operation.remove(event);
+            int i = o.operation.remove(event);
 
-                if (i == Operation.COMPLETED) {
-                    OPERATIONS.remove(messageId);
-                    o.future.complete(null);
-                } else if (i == Operation.RESET_TIMEOUT) {
-                    OPERATIONS.resetExpiration(messageId);
-                }
+            if (i == Operation.COMPLETED) {
+                OPERATIONS.remove(messageId);
+                o.future.complete(null);
+            } else if (i == Operation.RESET_TIMEOUT) {
+                OPERATIONS.resetExpiration(messageId);
+            }
+        }
 
+        private void onReactionRemoveAll(MessageReactionRemoveAllEvent event) {
+            long messageId = event.getMessageIdLong();
+            RunningOperation o = OPERATIONS.get(messageId);
+            if (o == null) {
                 return;
             }
 
-            if (e instanceof MessageReactionRemoveAllEvent) {
-                MessageReactionRemoveAllEvent event = (MessageReactionRemoveAllEvent) e;
-                long messageId = event.getMessageIdLong();
-                RunningOperation o = OPERATIONS.get(messageId);
-                if (o == null) {
-                    return;
-                }
-
-                int i = o.operation.removeAll(event);
-
-                if (i == Operation.COMPLETED) {
-                    OPERATIONS.remove(messageId);
-                    o.future.complete(null);
-                } else if (i == Operation.RESET_TIMEOUT) {
-                    OPERATIONS.resetExpiration(messageId);
-                }
+            int i = o.operation.removeAll(event);
+
+            if (i == Operation.COMPLETED) {
+                OPERATIONS.remove(messageId);
+                o.future.complete(null);
+            } else if (i == Operation.RESET_TIMEOUT) {
+                OPERATIONS.resetExpiration(messageId);
             }
         }
     }
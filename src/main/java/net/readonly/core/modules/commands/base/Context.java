@@ -42,11 +42,14 @@ import net.dv8tion.jda.api.utils.concurrent.Task;
 import net.readonly.BotData;
 import net.readonly.ReadOnlyBot;
 import net.readonly.config.Config;
+import net.readonly.core.command.ParsedMessage;
+import net.readonly.core.command.processor.CommandTimer;
 import net.readonly.core.modules.commands.i18n.I18nContext;
 import net.readonly.database.ManagedDatabase;
 import net.readonly.database.entity.DBGuild;
 import net.readonly.utils.FinderUtil;
 import net.readonly.utils.StringUtils;
+import net.readonly.utils.cmds.FormatTemplate;
 import redis.clients.jedis.JedisPool;
 
 public class Context {
@@ -55,17 +58,21 @@ public class Context {
     private final ManagedDatabase managedDatabase = BotData.db();
 
     private final GuildMessageReceivedEvent event;
-    private final String content;
+    private final ParsedMessage parsed;
     private final boolean isMentionPrefix;
     private I18nContext languageContext;
 
-    public Context(GuildMessageReceivedEvent event, I18nContext languageContext, String content, boolean isMentionPrefix) {
+    public Context(GuildMessageReceivedEvent event, I18nContext languageContext, ParsedMessage parsed, boolean isMentionPrefix) {
         this.event = event;
         this.languageContext = languageContext;
-        this.content = content;
+        this.parsed = parsed;
         this.isMentionPrefix = isMentionPrefix;
     }
 
+    public Context(GuildMessageReceivedEvent event, I18nContext languageContext, String content, boolean isMentionPrefix) {
+        this(event, languageContext, ParsedMessage.ofArguments(content), isMentionPrefix);
+    }
+
     public ReadOnlyBot getBot() {
         return bot;
     }
@@ -159,58 +166,60 @@ public class Context {
     }
 
     public String getContent() {
-        return content;
+        return parsed.arguments();
     }
 
+    /**
+     * The arguments, split once per message and shared between calls. Don't modify the returned array.
+     *
+     * @return The quote-aware split of the arguments.
+     */
     public String[] getArguments() {
-        return StringUtils.advancedSplitArgs(content, 0);
+        return parsed.quotedArguments();
     }
 
     public Map<String, String> getOptionalArguments() {
-        return StringUtils.parseArguments(getArguments());
+        // parseArguments modifies the array it's given.
+        return StringUtils.parseArguments(getArguments().clone());
     }
 
     public void send(Message message) {
-        getChannel().sendMessage(message).queue();
+        CommandTimer.queue(getChannel().sendMessage(message));
     }
 
     public void send(String message) {
-        getChannel().sendMessage(message).queue();
+        CommandTimer.queue(getChannel().sendMessage(message));
     }
 
     public void sendFormat(String message, Object... format) {
-        getChannel().sendMessage(
-                String.format(StringUtils.getLocaleFromLanguage(getLanguageContext()), message, format)
-        ).queue();
+        CommandTimer.queue(getChannel().sendMessage(FormatTemplate.of(message).format(languageContext.getLocale(), format)));
     }
 
     public void send(MessageEmbed embed) {
         // Sending embeds while supressing the failure callbacks leads to very hard
         // to debug bugs, so enable it.
-        getChannel().sendMessage(embed).queue(success -> {}, Throwable::printStackTrace);
+        CommandTimer.queue(getChannel().sendMessage(embed), success -> {}, Throwable::printStackTrace);
     }
 
     public void sendLocalized(String localizedMessage, Object... args) {
         // Stop swallowing issues with String replacements (somehow really common)
-        getChannel().sendMessage(
-                String.format(StringUtils.getLocaleFromLanguage(getLanguageContext()), languageContext.get(localizedMessage), args)
-        ).queue(success -> {}, Throwable::printStackTrace);
+        CommandTimer.queue(getChannel().sendMessage(languageContext.format(localizedMessage, args)),
+                success -> {}, Throwable::printStackTrace
+        );
     }
 
     public void sendLocalized(String localizedMessage) {
-        getChannel().sendMessage(languageContext.get(localizedMessage)).queue();
+        CommandTimer.queue(getChannel().sendMessage(languageContext.get(localizedMessage)));
     }
 
     public void sendStripped(String message) {
-        getChannel().sendMessage(message)
-                .allowedMentions(EnumSet.noneOf(Message.MentionType.class))
-                .queue();
+        CommandTimer.queue(getChannel().sendMessage(message)
+                .allowedMentions(EnumSet.noneOf(Message.MentionType.class)));
     }
 
     public void sendStrippedLocalized(String localizedMessage, Object... args) {
-        getChannel().sendMessage(String.format(
-        		StringUtils.getLocaleFromLanguage(getLanguageContext()), languageContext.get(localizedMessage), args)
-        ).allowedMentions(EnumSet.noneOf(Message.MentionType.class)).queue();
+        CommandTimer.queue(getChannel().sendMessage(languageContext.format(localizedMessage, args))
+                .allowedMentions(EnumSet.noneOf(Message.MentionType.class)));
     }
 
     public Task<List<Member>> findMember(String query, Consumer<List<Member>> success) {
@@ -1,19 +1,55 @@
 package net.readonly.core.modules.commands.i18n;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import net.readonly.utils.cmds.I18n;
 
+/**
+ * Localized strings for a command, in the language of the guild it runs on.
+ * <br>Contexts hold no per-command state, so there's a single one per language, shared by every guild using it.
+ */
 public class I18nContext {
+    private static final Map<String, I18nContext> CONTEXTS = new ConcurrentHashMap<>();
+
+    private final I18n i18n;
 
     public I18nContext() {
+        this(I18n.en_US());
+    }
+
+    private I18nContext(I18n i18n) {
+        this.i18n = i18n;
+    }
+
+    /**
+     * @param language Name of the language, such as {@code en_US}.
+     *
+     * @return The shared context for that language, or the en_US one if the language doesn't exist.
+     */
+    public static I18nContext of(String language) {
+        var i18n = I18n.getForLanguage(language);
+        return CONTEXTS.computeIfAbsent(i18n.getLanguage(), l -> new I18nContext(i18n));
     }
 
     public String get(String s) {
-        I18n context = I18n.en_US();
-        return context.get(s);
+        return i18n.get(s);
+    }
+
+    public String format(String s, Object... args) {
+        return i18n.format(s, args);
+    }
+
+    public Locale getLocale() {
+        return i18n.getLocale();
+    }
+
+    public String getLanguage() {
+        return i18n.getLanguage();
     }
 
     public String withRoot(String root, String s) {
-        I18n context = I18n.en_US();
-        return context.withRoot(root, s);
+        return i18n.withRoot(root, s);
     }
 }
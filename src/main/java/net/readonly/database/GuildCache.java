@@ -0,0 +1,228 @@
+package net.readonly.database;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.rethinkdb.RethinkDB;
+
+import lombok.extern.slf4j.Slf4j;
+import net.readonly.database.entity.DBGuild;
+import net.readonly.utils.exports.Metrics;
+
+/**
+ * Serves {@link DBGuild} objects from memory and writes them back to rethink in the background.
+ * <br>Repeated saves of the same guild between two flushes are coalesced into a single write.
+ * <br>Guilds are snapshotted when queued, so the writer never serializes an object a command is still changing.
+ * A write stays queued until rethink acknowledges it. Failed writes are retried with a growing delay, and dropped
+ * after {@link #MAX_ATTEMPTS} attempts. Deletes go through the same queue, so they can't be overtaken by a write
+ * that was already in flight.
+ */
+@Slf4j
+public class GuildCache {
+    private static final long FLUSH_INTERVAL_MILLIS = 500;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+    private static final int MAX_ATTEMPTS = 12;
+    private static final TypeReference<Map<String, Object>> DOCUMENT = new TypeReference<>() { };
+
+    private final ManagedDatabase database;
+    private final LoadingCache<String, DBGuild> cache;
+    private final Map<String, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer = Executors.newScheduledThreadPool(1,
+            new ThreadFactoryBuilder().setNameFormat("GuildCache-Writer").setDaemon(true).build()
+    );
+
+    public GuildCache(@Nonnull ManagedDatabase database, long maximumSize, long expireMinutes) {
+        this.database = database;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireMinutes, TimeUnit.MINUTES)
+                .removalListener(notification -> {
+                    if (notification.wasEvicted()) {
+                        Metrics.GUILD_CACHE_EVICTIONS.inc();
+                    }
+                })
+                .build(new CacheLoader<>() {
+                    @Override
+                    public DBGuild load(@Nonnull String id) {
+                        Metrics.GUILD_CACHE_MISSES.inc();
+                        // An evicted guild might still be waiting to be written (or deleted), that's newer than rethink's.
+                        var write = pending.get(id);
+                        if (write == null) {
+                            return database.loadGuild(id);
+                        }
+
+                        return write.isDelete() ? DBGuild.of(id) : write.guild;
+                    }
+                });
+
+        Metrics.THREAD_POOL_COLLECTOR.add("guild-cache-writer", writer);
+        writer.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "GuildCache-Shutdown-Flush"));
+    }
+
+    @Nonnull
+    @CheckReturnValue
+    public DBGuild get(@Nonnull String guildId) {
+        var guild = cache.getIfPresent(guildId);
+        if (guild != null) {
+            Metrics.GUILD_CACHE_HITS.inc();
+            return guild;
+        }
+
+        return cache.getUnchecked(guildId);
+    }
+
+    /**
+     * Caches a guild that is known to be up to date on rethink.
+     *
+     * @param guild The guild to cache.
+     */
+    public void put(@Nonnull DBGuild guild) {
+        cache.put(guild.getId(), guild);
+    }
+
+    /**
+     * Caches a guild that is known to be up to date on rethink, unless the guild is already cached
+     * or has a write queued, either of which is newer.
+     *
+     * @param guild The guild to cache.
+     */
+    public void putIfAbsent(@Nonnull DBGuild guild) {
+        if (!pending.containsKey(guild.getId())) {
+            cache.asMap().putIfAbsent(guild.getId(), guild);
+        }
+    }
+
+    /**
+     * Queues a guild to be written on the next flush. If a write for the same guild is already
+     * queued, both are merged and only the latest state is sent.
+     *
+     * @param guild The guild to save.
+     * @param replace Whether to replace the document, instead of updating it.
+     */
+    public void queueSave(@Nonnull DBGuild guild, boolean replace) {
+        var snapshot = RethinkDB.getResultMapper().convertValue(guild, DOCUMENT);
+        cache.put(guild.getId(), guild);
+        pending.merge(guild.getId(), new PendingWrite(guild, snapshot, replace), (old, current) -> {
+            Metrics.GUILD_CACHE_WRITES.labels("coalesced").inc();
+            // A delete followed by a save has to replace whatever is left on rethink.
+            return new PendingWrite(current.guild, current.snapshot, old.replace || old.isDelete() || current.replace);
+        });
+        Metrics.GUILD_CACHE_PENDING_WRITES.set(pending.size());
+    }
+
+    /**
+     * Drops a guild from the cache and queues its deletion, cancelling any write still queued for it.
+     *
+     * @param guildId The guild to delete.
+     */
+    public void queueDelete(@Nonnull String guildId) {
+        pending.put(guildId, new PendingWrite(null, null, true));
+        cache.invalidate(guildId);
+        Metrics.GUILD_CACHE_PENDING_WRITES.set(pending.size());
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Writes every queued guild that's due to rethink, waiting for each write to be acknowledged.
+     * Failed writes stay queued for a later flush, unless a newer one got queued meanwhile.
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    private void shutdown() {
+        // Let a scheduled flush finish, then write everything left, backed off or not.
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flush(true);
+    }
+
+    private synchronized void flush(boolean all) {
+        var now = System.currentTimeMillis();
+        for (var entry : pending.entrySet()) {
+            var id = entry.getKey();
+            var write = entry.getValue();
+            if (!all && write.retryAt > now) {
+                continue;
+            }
+
+            try {
+                if (write.isDelete()) {
+                    database.deleteAcknowledged(DBGuild.DB_TABLE, id);
+                } else {
+                    database.writeAcknowledged(DBGuild.DB_TABLE, write.snapshot, write.replace ? "replace" : "update");
+                }
+
+                // Only forget the write if nothing newer replaced it while it was in flight.
+                pending.remove(id, write);
+                Metrics.GUILD_CACHE_WRITES.labels("flushed").inc();
+            } catch (Exception e) {
+                failed(id, write, now, e);
+            }
+        }
+
+        Metrics.GUILD_CACHE_PENDING_WRITES.set(pending.size());
+    }
+
+    private void failed(String id, PendingWrite write, long now, Exception e) {
+        write.attempts++;
+        if (write.attempts >= MAX_ATTEMPTS) {
+            // Rethink keeps refusing it, so retrying forever would only pile up. The cached guild is kept as is.
+            if (pending.remove(id, write)) {
+                Metrics.GUILD_CACHE_WRITES.labels("dropped").inc();
+                log.error("Dropping write of guild {} after {} failed attempts: {}", id, write.attempts, write.snapshot, e);
+            }
+
+            return;
+        }
+
+        Metrics.GUILD_CACHE_WRITES.labels("retried").inc();
+        var delay = Math.min(MAX_RETRY_DELAY_MILLIS, FLUSH_INTERVAL_MILLIS << write.attempts);
+        write.retryAt = now + delay;
+        if (write.attempts == 1) {
+            log.warn("Unable to write guild {} to rethink, retrying with backoff", id, e);
+        } else {
+            log.debug("Write of guild {} failed again (attempt {}), retrying in {}ms: {}", id, write.attempts, delay, e.toString());
+        }
+    }
+
+    private static class PendingWrite {
+        private final DBGuild guild;
+        // What gets written, taken when the save was queued. Null for deletes.
+        private final Map<String, Object> snapshot;
+        private final boolean replace;
+        // Only touched by flush(), which is synchronized.
+        private int attempts;
+        private long retryAt;
+
+        private PendingWrite(DBGuild guild, Map<String, Object> snapshot, boolean replace) {
+            this.guild = guild;
+            this.snapshot = snapshot;
+            this.replace = replace;
+        }
+
+        private boolean isDelete() {
+            return snapshot == null;
+        }
+    }
+}
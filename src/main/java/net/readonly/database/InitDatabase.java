@@ -1,31 +1,71 @@
 package net.readonly.database;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
+import com.google.common.collect.Lists;
+
+import lombok.extern.slf4j.Slf4j;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.events.ReadyEvent;
 import net.readonly.BotData;
+import net.readonly.database.entity.DBGuild;
+import net.readonly.utils.exports.Metrics;
 
+/**
+ * Makes sure every guild the bot is in has a document on rethink.
+ * <br>Existing ids are fetched with a single query and the missing guilds are inserted in batches,
+ * all of it outside of the gateway thread.
+ */
+@Slf4j
 public class InitDatabase {
-	
+	private static final int INSERT_BATCH_SIZE = 200;
+
 	private ManagedDatabase DB = BotData.db();
 	private List<Guild> guilds;
-	
+
 	public InitDatabase(ReadyEvent event) {
 		this.guilds = event.getJDA().getGuilds();
-		checkDatabase();
+		BotData.queue(this::checkDatabase);
 	}
-	
+
 	private void checkDatabase() {
-		for(Guild guild :  guilds) {
-			boolean exists =  DB.checkGuild(guild.getId());
-			if(!exists) {
-	            final var dbGuild = DB.getGuild(guild);
-	            final var data = dbGuild.getData();
-	            data.setGuildName(guild.getName());
-	            data.setGuildOwner(guild.getOwnerId());
-	            dbGuild.save();
+		var start = System.nanoTime();
+		Metrics.GUILD_BOOTSTRAP_PROGRESS.set(0);
+
+		try {
+			var ids = guilds.stream().map(Guild::getId).collect(Collectors.toList());
+			var existing = DB.getExistingGuildIds(ids);
+
+			List<DBGuild> missing = new ArrayList<>();
+			for (Guild guild : guilds) {
+				if (!existing.contains(guild.getId())) {
+					final var dbGuild = DBGuild.of(guild.getId());
+					final var data = dbGuild.getData();
+					data.setGuildName(guild.getName());
+					data.setGuildOwner(guild.getOwnerId());
+					missing.add(dbGuild);
+				}
 			}
+
+			var done = existing.size();
+			var insertedTotal = 0;
+			Metrics.GUILD_BOOTSTRAP_PROGRESS.set(guilds.isEmpty() ? 1 : (double) done / guilds.size());
+
+			for (var batch : Lists.partition(missing, INSERT_BATCH_SIZE)) {
+				var inserted = DB.insertGuilds(batch);
+				done += batch.size();
+				insertedTotal += inserted;
+				Metrics.GUILD_BOOTSTRAP_INSERTED.inc(inserted);
+				Metrics.GUILD_BOOTSTRAP_PROGRESS.set((double) done / guilds.size());
+			}
+
+			log.info("Checked {} guilds, inserted {} of {} missing guilds", guilds.size(), insertedTotal, missing.size());
+		} catch (Exception e) {
+			log.error("Unable to bootstrap guilds on rethink", e);
+		} finally {
+			Metrics.GUILD_BOOTSTRAP_DURATION.set((System.nanoTime() - start) / 1_000_000_000D);
 		}
 	}
 }
@@ -2,6 +2,12 @@ package net.readonly.database;
 
 import static com.rethinkdb.RethinkDB.r;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -12,15 +18,18 @@ import lombok.extern.slf4j.Slf4j;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
+import net.readonly.BotData;
 import net.readonly.database.entity.BotObj;
 import net.readonly.database.entity.DBGuild;
 
 @Slf4j
 public class ManagedDatabase {
     private final Connection conn;
+    private final GuildCache guildCache;
     
     public ManagedDatabase(@Nonnull Connection conn) {
         this.conn = conn;
+        this.guildCache = new GuildCache(this, BotData.config().getGuildCacheSize(), BotData.config().getGuildCacheExpiry());
     }
 
     @Nonnull
@@ -34,6 +43,11 @@ public class ManagedDatabase {
     @Nonnull
     @CheckReturnValue
     public DBGuild getGuild(@Nonnull String guildId) {
+        return guildCache.get(guildId);
+    }
+
+    @Nonnull
+    DBGuild loadGuild(@Nonnull String guildId) {
         log.info("Requesting guild {} from rethink", guildId);
         DBGuild guild = r.table(DBGuild.DB_TABLE).get(guildId).runAtom(conn, DBGuild.class);
         return guild == null ? DBGuild.of(guildId) : guild;
@@ -47,6 +61,68 @@ public class ManagedDatabase {
         return guild == null ? false : true;
     }
 
+    /**
+     * Returns which of the given guild ids already have a document, using a single query.
+     *
+     * @param guildIds The ids to look for.
+     *
+     * @return The ids that exist on rethink.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public Set<String> getExistingGuildIds(@Nonnull Collection<String> guildIds) {
+        log.info("Checking for {} guilds on rethink", guildIds.size());
+        if (guildIds.isEmpty()) {
+            return Set.of();
+        }
+
+        try (var result = r.table(DBGuild.DB_TABLE).getAll(guildIds.toArray()).getField("id").run(conn, String.class)) {
+            return result.stream().collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Inserts a batch of guilds in a single query, and caches them if none of them existed already.
+     * <br>Guilds that got a document in the meantime (a command saved them after the ids were checked) are left
+     * untouched, their document is newer than these defaults.
+     *
+     * @param guilds The guilds to insert.
+     *
+     * @return How many guilds were actually inserted.
+     *
+     * @throws IllegalStateException If rethink refused the insert for any other reason.
+     */
+    public int insertGuilds(@Nonnull List<DBGuild> guilds) {
+        log.info("Inserting {} guilds to rethink", guilds.size());
+
+        // The default "error" conflict never overwrites, duplicates just come back as errors.
+        Map<?, ?> result = r.table(DBGuild.DB_TABLE)
+                .insert(guilds)
+                .runAtom(conn, Map.class);
+
+        var inserted = count(result, "inserted");
+        var duplicates = count(result, "errors");
+        if (duplicates > 0) {
+            var error = String.valueOf(result.get("first_error"));
+            if (!error.startsWith("Duplicate primary key")) {
+                throw new IllegalStateException("Rethink refused the insert: " + error);
+            }
+
+            // Some of these are stale, and there's no telling which, so they're loaded when needed instead.
+            log.info("{} guilds already existed on rethink, kept them as they are", duplicates);
+            return inserted;
+        }
+
+        // Guilds loaded (and maybe changed) by commands while this ran are newer than these.
+        guilds.forEach(guildCache::putIfAbsent);
+        return inserted;
+    }
+
+    private static int count(Map<?, ?> result, String key) {
+        var value = result == null ? null : result.get(key);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
     @Nonnull
     @CheckReturnValue
     public DBGuild getGuild(@Nonnull Guild guild) {
@@ -65,25 +141,71 @@ public class ManagedDatabase {
         return getGuild(event.getGuild());
     }
 
+    @Nonnull
+    public GuildCache getGuildCache() {
+        return guildCache;
+    }
+
     public void save(@Nonnull ManagedObject object) {
-        log.info("Saving {} {}:{} to rethink (replacing)", object.getClass().getSimpleName(), object.getTableName(), object.getDatabaseId());
+        if (object instanceof DBGuild) {
+            guildCache.queueSave((DBGuild) object, true);
+            return;
+        }
 
-        r.table(object.getTableName())
-                .insert(object)
-                .optArg("conflict", "replace")
-                .runNoReply(conn);
+        write(object, "replace");
     }
 
     public void saveUpdating(@Nonnull ManagedObject object) {
-        log.info("Saving {} {}:{} to rethink (updating)", object.getClass().getSimpleName(), object.getTableName(), object.getDatabaseId());
+        if (object instanceof DBGuild) {
+            guildCache.queueSave((DBGuild) object, false);
+            return;
+        }
+
+        write(object, "update");
+    }
+
+    void write(@Nonnull ManagedObject object, @Nonnull String conflict) {
+        log.info("Saving {} {}:{} to rethink ({})", object.getClass().getSimpleName(), object.getTableName(), object.getDatabaseId(), conflict);
 
         r.table(object.getTableName())
                 .insert(object)
-                .optArg("conflict", "update")
+                .optArg("conflict", conflict)
                 .runNoReply(conn);
     }
 
+    /**
+     * Writes a document and waits for rethink to apply it.
+     *
+     * @throws IllegalStateException If rethink refused the write.
+     */
+    void writeAcknowledged(@Nonnull String table, @Nonnull Object document, @Nonnull String conflict) {
+        checkResult(r.table(table).insert(document).optArg("conflict", conflict).runAtom(conn, Map.class));
+    }
+
+    /**
+     * Deletes a document and waits for rethink to apply it.
+     *
+     * @throws IllegalStateException If rethink refused the delete.
+     */
+    void deleteAcknowledged(@Nonnull String table, @Nonnull String id) {
+        log.info("Deleting {}:{} from rethink", table, id);
+        checkResult(r.table(table).get(id).delete().runAtom(conn, Map.class));
+    }
+
+    private static void checkResult(Map<?, ?> result) {
+        var errors = result == null ? null : result.get("errors");
+        if (errors instanceof Number && ((Number) errors).longValue() > 0) {
+            throw new IllegalStateException("Rethink refused the write: " + result.get("first_error"));
+        }
+    }
+
     public void delete(@Nonnull ManagedObject object) {
+        if (object instanceof DBGuild) {
+            // Ordered after any write of the same guild that might still be in flight.
+            guildCache.queueDelete(object.getId());
+            return;
+        }
+
         log.info("Deleting {} {}:{} from rethink", object.getClass().getSimpleName(), object.getTableName(), object.getDatabaseId());
 
         r.table(object.getTableName())
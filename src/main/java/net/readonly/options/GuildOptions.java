@@ -9,7 +9,9 @@ import com.google.common.eventbus.Subscribe;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.ISnowflake;
 import net.dv8tion.jda.api.entities.TextChannel;
+import net.readonly.core.command.processor.CommandProcessor;
 import net.readonly.core.modules.commands.base.ChannelPermission;
+import net.readonly.core.modules.commands.i18n.I18nContext;
 import net.readonly.database.entity.DBGuild;
 import net.readonly.database.entity.GuildData;
 import net.readonly.options.annotations.Optionable;
@@ -20,6 +22,7 @@ import net.readonly.options.base.Option.Action;
 import net.readonly.options.base.OptionSection;
 import net.readonly.options.event.OptionRegisterEvent;
 import net.readonly.utils.EmoteReference;
+import net.readonly.utils.cmds.I18n;
 
 @Optionable
 public class GuildOptions extends OptHandler {
@@ -30,6 +33,7 @@ public class GuildOptions extends OptHandler {
 	@Subscribe
 	public void onRegistry(OptionRegisterEvent e) {
 		Option PREFIX = Option.of(OptionSection.PREFIX, "prefix", "Controls the bot's prefix");
+		Option LANGUAGE = Option.of(OptionSection.LANGUAGE, "language", "Controls the bot's language on this server");
 		Option _116_LISTEN = Option.of(OptionSection._116, "listen", "What channels the bot should listen in");
 		Option _116_REPLY = Option.of(OptionSection._116, "reply", "Message replied with when 1.16+ is referenced");
 		
@@ -66,10 +70,35 @@ public class GuildOptions extends OptHandler {
 			GuildData guildData = dbGuild.getData();
 			guildData.setPrefix(prefix);
 			dbGuild.save();
+			CommandProcessor.PREFIXES.update(ctx.getGuild().getIdLong(), prefix);
 
 			ctx.sendLocalized("options.prefix_set.success", EmoteReference.MEGA, prefix);
 		}));
 
+		LANGUAGE.addAction(Action.ofType(ActionType.SET, "Sets the server language").setActionBiConsumer((ctx, args) -> {
+			String available = I18n.LANGUAGES.stream().map(l -> l.replace(".json", "")).collect(Collectors.joining(", "));
+			if (args.length < 1) {
+				ctx.sendLocalized("options.language_set.no_language", EmoteReference.ERROR, available);
+				return;
+			}
+
+			String language = args[0];
+
+			if (!I18n.isValidLanguage(language)) {
+				ctx.sendLocalized("options.language_set.invalid", EmoteReference.ERROR, language, available);
+				return;
+			}
+
+			DBGuild dbGuild = ctx.getDBGuild();
+			GuildData guildData = dbGuild.getData();
+			guildData.setLang(language);
+			dbGuild.save();
+			CommandProcessor.LANGUAGES.update(ctx.getGuild().getIdLong(), language);
+
+			// Reply in the new language.
+			ctx.send(I18nContext.of(language).format("options.language_set.success", EmoteReference.MEGA, language));
+		}));
+
 		_116_LISTEN.addAction(Action.ofType(ActionType.ADD, "Adds channel(s) to listen for references to 1.16+")
 				.setActionConsumer(((ctx) -> {
 					List<TextChannel> mutable = new ArrayList<>(ctx.getMentionedTextChannels());
@@ -164,6 +193,7 @@ public class GuildOptions extends OptHandler {
 		registerOption(_116_REPLY);
 		registerOption(_116_LISTEN);
 		registerOption(PREFIX);
+		registerOption(LANGUAGE);
 	}
 
 	@Override
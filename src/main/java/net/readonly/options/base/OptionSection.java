@@ -3,6 +3,7 @@ package net.readonly.options.base;
 public enum OptionSection {
 	
 	PREFIX("Prefix"),
+	LANGUAGE("Language"),
 	_116("116");
 	
 	private final String name;
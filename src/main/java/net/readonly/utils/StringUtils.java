@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -23,6 +24,7 @@ import net.readonly.core.modules.commands.i18n.I18nContext;
 public class StringUtils {
     public static final Pattern SPLIT_PATTERN = Pattern.compile("\\s+");
     public static final String[] EMPTY_ARRAY = new String[0];
+    private static final Map<String, Locale> LOCALES = new ConcurrentHashMap<>();
     
     public static final Pattern FORMAT_PATTERN = Pattern.compile("%\\d[$][,]?[a-zA-Z]");
 
@@ -47,7 +49,7 @@ public class StringUtils {
     }
 
     public static Locale getLocaleFromLanguage(I18nContext context) {
-        return getLocaleFromLanguage("en_US");
+        return context.getLocale();
     }
 
     public static Locale getLocaleFromLanguage(String language) {
@@ -55,6 +57,11 @@ public class StringUtils {
             return Locale.ENGLISH;
         }
 
+        // Only ever called with language names, so this stays as small as the language list.
+        return LOCALES.computeIfAbsent(language, StringUtils::parseLocale);
+    }
+
+    private static Locale parseLocale(String language) {
         Locale locale = null;
         try {
             locale = LocaleUtils.toLocale(language);
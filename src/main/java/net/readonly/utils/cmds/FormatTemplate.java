@@ -0,0 +1,295 @@
+package net.readonly.utils.cmds;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link String#format(Locale, String, Object...) format string}, parsed once.
+ * <br>Covers what the language files and command replies actually use: {@code %s}, {@code %d} and {@code %,d}, with
+ * or without an explicit argument index, plus {@code %%} and {@code %n}. Rendering appends the literal parts and the
+ * arguments to a reused builder instead of re-parsing the format with a regex on every call.
+ * <br>Anything else (widths, precision, other conversions, {@link Formattable} or {@link java.math.BigInteger}
+ * arguments, missing arguments) is handed to {@link String#format(Locale, String, Object...)} as is, so the output
+ * and the exceptions thrown are always the same as formatting the source string.
+ */
+public final class FormatTemplate {
+    // Same as java.util.Formatter.
+    private static final Pattern SPECIFIER = Pattern.compile("%(\\d+\\$)?([-#+ 0,(<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+    // Formats passed by commands are literals, this only guards against someone formatting user input.
+    private static final int MAX_CACHED = 2048;
+    private static final Map<String, FormatTemplate> CACHE = new ConcurrentHashMap<>();
+    private static final Map<Locale, NumberSymbols> SYMBOLS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private static final byte STRING = 0;
+    private static final byte INTEGER = 1;
+    private static final byte GROUPED_INTEGER = 2;
+
+    private final String source;
+    // literals[i] goes before the i-th placeholder, the last one after all of them.
+    // Null when the source isn't supported, and rendering falls back to String.format.
+    private final String[] literals;
+    private final int[] arguments;
+    private final byte[] conversions;
+
+    private FormatTemplate(String source, String[] literals, int[] arguments, byte[] conversions) {
+        this.source = source;
+        this.literals = literals;
+        this.arguments = arguments;
+        this.conversions = conversions;
+    }
+
+    /**
+     * Parses a format string.
+     *
+     * @param format The format string.
+     *
+     * @return The template. Never fails, unsupported formats render through {@link String#format(Locale, String, Object...)}.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static FormatTemplate compile(@Nonnull String format) {
+        var literals = new ArrayList<String>();
+        var arguments = new ArrayList<Integer>();
+        var conversions = new ArrayList<Byte>();
+        var literal = new StringBuilder();
+        var matcher = SPECIFIER.matcher(format);
+        var last = 0;
+        var ordinary = 0;
+
+        while (matcher.find()) {
+            // A % that isn't a valid specifier is an error for String.format, let it throw there.
+            if (hasPercent(format, last, matcher.start())) {
+                return unsupported(format);
+            }
+
+            literal.append(format, last, matcher.start());
+            last = matcher.end();
+
+            var index = matcher.group(1);
+            var flags = matcher.group(2);
+            var conversion = matcher.group(6).charAt(0);
+            if (matcher.group(3) != null || matcher.group(4) != null || matcher.group(5) != null) {
+                return unsupported(format);
+            }
+
+            if (conversion == '%' || conversion == 'n') {
+                if (index != null || (flags != null && !flags.isEmpty())) {
+                    return unsupported(format);
+                }
+
+                literal.append(conversion == '%' ? "%" : System.lineSeparator());
+                continue;
+            }
+
+            byte type;
+            if (conversion == 's' && (flags == null || flags.isEmpty())) {
+                type = STRING;
+            } else if (conversion == 'd' && (flags == null || flags.isEmpty())) {
+                type = INTEGER;
+            } else if (conversion == 'd' && flags.equals(",")) {
+                type = GROUPED_INTEGER;
+            } else {
+                return unsupported(format);
+            }
+
+            literals.add(literal.toString());
+            literal.setLength(0);
+            arguments.add(index == null ? ordinary++ : Integer.parseInt(index, 0, index.length() - 1, 10) - 1);
+            conversions.add(type);
+        }
+
+        if (hasPercent(format, last, format.length())) {
+            return unsupported(format);
+        }
+
+        literal.append(format, last, format.length());
+        literals.add(literal.toString());
+
+        var argumentArray = new int[arguments.size()];
+        var conversionArray = new byte[conversions.size()];
+        for (int i = 0; i < argumentArray.length; i++) {
+            if (arguments.get(i) < 0) {
+                return unsupported(format);
+            }
+
+            argumentArray[i] = arguments.get(i);
+            conversionArray[i] = conversions.get(i);
+        }
+
+        return new FormatTemplate(format, literals.toArray(String[]::new), argumentArray, conversionArray);
+    }
+
+    /**
+     * Same as {@link #compile(String)}, but reuses the template if the same format was compiled through here before.
+     * Meant for formats written in code, use {@link #compile(String)} for anything else.
+     *
+     * @param format The format string.
+     *
+     * @return The template.
+     */
+    @Nonnull
+    public static FormatTemplate of(@Nonnull String format) {
+        var template = CACHE.get(format);
+        if (template == null) {
+            template = compile(format);
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.putIfAbsent(format, template);
+            }
+        }
+
+        return template;
+    }
+
+    /**
+     * @return The format string this template was compiled from.
+     */
+    @Nonnull
+    public String source() {
+        return source;
+    }
+
+    /**
+     * Renders the template, with the same result as {@code String.format(locale, source(), args)}.
+     *
+     * @param locale Locale used to group digits on {@code %,d}.
+     * @param args The arguments.
+     *
+     * @return The formatted string.
+     */
+    @Nonnull
+    public String format(@Nonnull Locale locale, Object... args) {
+        var literals = this.literals;
+        if (literals == null) {
+            return String.format(locale, source, args);
+        }
+
+        if (conversions.length == 0) {
+            return literals[0];
+        }
+
+        var buffer = BUFFER.get();
+        if (buffer.inUse) {
+            // An argument's toString() is formatting through a template, and the outer call still owns the buffer.
+            return render(new StringBuilder(), locale, args);
+        }
+
+        buffer.inUse = true;
+        try {
+            var builder = buffer.builder;
+            builder.setLength(0);
+            var result = render(builder, locale, args);
+            // Don't keep a huge buffer around because of a single huge message.
+            if (builder.capacity() > 8192) {
+                buffer.builder = new StringBuilder(256);
+            }
+
+            return result;
+        } finally {
+            buffer.inUse = false;
+        }
+    }
+
+    private String render(StringBuilder builder, Locale locale, Object[] args) {
+        for (int i = 0; i < conversions.length; i++) {
+            builder.append(literals[i]);
+            var index = arguments[i];
+            if (args == null || index >= args.length) {
+                return String.format(locale, source, args);
+            }
+
+            var arg = args[index];
+            switch (conversions[i]) {
+                case STRING -> {
+                    if (arg instanceof Formattable) {
+                        return String.format(locale, source, args);
+                    }
+
+                    builder.append(arg);
+                }
+                case INTEGER, GROUPED_INTEGER -> {
+                    if (!(arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte)) {
+                        return String.format(locale, source, args);
+                    }
+
+                    appendInteger(builder, ((Number) arg).longValue(), locale, conversions[i] == GROUPED_INTEGER);
+                }
+                default -> throw new AssertionError();
+            }
+        }
+
+        builder.append(literals[conversions.length]);
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private static FormatTemplate unsupported(String format) {
+        return new FormatTemplate(format, null, null, null);
+    }
+
+    private static boolean hasPercent(String format, int start, int end) {
+        var index = format.indexOf('%', start);
+        return index != -1 && index < end;
+    }
+
+    private static void appendInteger(StringBuilder builder, long value, Locale locale, boolean grouped) {
+        var symbols = SYMBOLS.computeIfAbsent(locale, NumberSymbols::new);
+        if (!grouped && symbols.zero == '0') {
+            builder.append(value);
+            return;
+        }
+
+        // Formatter always uses an ASCII minus sign, and localizes digits and the grouping separator.
+        var digits = Long.toString(value);
+        var start = 0;
+        if (value < 0) {
+            builder.append('-');
+            start = 1;
+        }
+
+        var length = digits.length() - start;
+        var size = symbols.groupingSize;
+        for (int i = start; i < digits.length(); i++) {
+            builder.append((char) (digits.charAt(i) - '0' + symbols.zero));
+            var remaining = length - (i - start) - 1;
+            if (grouped && size > 0 && remaining > 0 && remaining % size == 0) {
+                builder.append(symbols.groupingSeparator);
+            }
+        }
+    }
+
+    private static final class NumberSymbols {
+        private final char zero;
+        private final char groupingSeparator;
+        private final int groupingSize;
+
+        private NumberSymbols(Locale locale) {
+            var symbols = DecimalFormatSymbols.getInstance(locale);
+            this.zero = symbols.getZeroDigit();
+            this.groupingSeparator = symbols.getGroupingSeparator();
+
+            var format = NumberFormat.getIntegerInstance(locale);
+            this.groupingSize = format instanceof DecimalFormat ? ((DecimalFormat) format).getGroupingSize() : 3;
+        }
+    }
+
+    // The builder reused by format() on each thread, and whether a format() on the same thread is using it.
+    private static final class Buffer {
+        private StringBuilder builder = new StringBuilder(256);
+        private boolean inUse;
+    }
+}
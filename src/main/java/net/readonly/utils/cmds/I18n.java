@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -35,6 +36,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import net.readonly.utils.LangKeyNotFoundException;
 import net.readonly.utils.StringUtils;
 
+/**
+ * Localized strings for a language.
+ * <br>Language files are flattened on load into a single table of full keys ({@code options.prefix_set.success}),
+ * with every string already passed through {@link StringUtils#fixInlineCodeblockDirection(String)} and keys
+ * missing from a language already resolved to their en_US value. A lookup is a single hash probe.
+ * <br>Every string is also compiled into a {@link FormatTemplate} on load, so {@link #format(String, Object...)}
+ * never parses a format string, and renders with a {@link Locale} resolved once per language.
+ */
 public class I18n {
     private static final Logger log = LoggerFactory.getLogger(I18n.class);
 
@@ -55,6 +64,7 @@ public class I18n {
             throw new ExceptionInInitializerError(e);
         }
 
+        Map<String, Map<String, Object>> tables = new HashMap<>();
         for (String lang : LANGUAGES) {
             var is = I18n.class.getResourceAsStream("/assets/languages/" + lang);
             try {
@@ -62,7 +72,9 @@ public class I18n {
                 Map<String, ?> map = mapper.readValue(is, Map.class);
 
                 var name = lang.replace(".json", "");
-                m.put(name, new I18n(map, lang));
+                var table = new HashMap<String, Object>();
+                flatten(table, "", map);
+                tables.put(name, table);
 
                 log.debug("Initialized I18n for: {}", name);
             } catch (Exception e) {
@@ -70,15 +82,28 @@ public class I18n {
             }
         }
 
+        var fallback = tables.getOrDefault("en_US", Map.of());
+        for (var table : tables.entrySet()) {
+            var entries = table.getValue();
+            if (!table.getKey().equals("en_US")) {
+                fallback.forEach(entries::putIfAbsent);
+            }
+
+            m.put(table.getKey(), new I18n(entries, table.getKey()));
+        }
+
         LANGUAGE_MAP = Collections.unmodifiableMap(m);
     }
 
-    private final Map<String, ?> map;
+    // Values are either a FormatTemplate, or a FormatTemplate[] to pick from at random.
+    private final Map<String, Object> entries;
     private final String language;
+    private final Locale locale;
 
-    private I18n(Map<String, ?> map, String language) {
-        this.map = map;
+    private I18n(Map<String, Object> entries, String language) {
+        this.entries = Map.copyOf(entries);
         this.language = language;
+        this.locale = StringUtils.getLocaleFromLanguage(language);
     }
 
     public static I18n en_US() {
@@ -102,54 +127,66 @@ public class I18n {
         ROOT.set(newRoot);
     }
 
+    public String getLanguage() {
+        return language;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
     @SuppressWarnings("unchecked")
-    private String get(Map<String, ?> map, String[] parts, boolean recursion) {
-        var index = 0;
-        while (index != parts.length - 1) {
-            Object maybeMap = map.get(parts[index]);
-            if (maybeMap instanceof Map) {
-                map = (Map<String, ?>) maybeMap;
-                index++;
-            } else {
-                if (language.equals("en_US") || recursion) {
-                    throw new LangKeyNotFoundException("Missing i18n key " + String.join(".", parts));
+    private static void flatten(Map<String, Object> table, String prefix, Map<String, ?> map) {
+        for (var entry : map.entrySet()) {
+            var key = prefix + entry.getKey();
+            var value = entry.getValue();
+            if (value instanceof Map) {
+                flatten(table, key + ".", (Map<String, ?>) value);
+            } else if (value instanceof String) {
+                table.put(key.intern(), FormatTemplate.compile(StringUtils.fixInlineCodeblockDirection((String) value)));
+            } else if (value instanceof Collection) {
+                var templates = ((Collection<?>) value).stream()
+                        .map(s -> FormatTemplate.compile(StringUtils.fixInlineCodeblockDirection(String.valueOf(s))))
+                        .toArray(FormatTemplate[]::new);
+                // An empty list can't be picked from, same as a missing key.
+                if (templates.length != 0) {
+                    table.put(key.intern(), templates);
                 }
-
-                return get(LANGUAGE_MAP.get("en_US").map, parts, true);
             }
         }
+    }
 
-        Object maybeString = map.get(parts[index]);
-        if (maybeString instanceof String) {
-            return (String) maybeString;
-        }
-
-        if (maybeString instanceof Collection) {
-            Collection<String> c = ((Collection<String>) maybeString);
-            return c.stream()
-                    .skip(ThreadLocalRandom.current().nextInt(c.size()))
-                    .findFirst()
-                    .orElseThrow(AssertionError::new);
-        }
-
-        if (language.equals("en_US") || recursion) {
-            throw new LangKeyNotFoundException("Missing i18n key " + String.join(".", parts));
-        }
+    public String get(String query) {
+        return template(query).source();
+    }
 
-        return get(LANGUAGE_MAP.get("en_US").map, parts, true);
+    /**
+     * Looks up a string and formats it, same as {@code String.format(getLocale(), get(query), args)}.
+     *
+     * @param query The key.
+     * @param args The format arguments.
+     *
+     * @return The formatted string.
+     */
+    public String format(String query, Object... args) {
+        return template(query).format(locale, args);
     }
 
-    public String get(String query) {
+    private FormatTemplate template(String query) {
         var root = ROOT.get();
-        String actualQuery;
+        var actualQuery = root == null ? query : root + "." + query;
+        var entry = entries.get(actualQuery);
+
+        if (entry instanceof FormatTemplate) {
+            return (FormatTemplate) entry;
+        }
 
-        if (root == null) {
-            actualQuery = query;
-        } else {
-            actualQuery = root + "." + query;
+        if (entry instanceof FormatTemplate[]) {
+            var choices = (FormatTemplate[]) entry;
+            return choices[ThreadLocalRandom.current().nextInt(choices.length)];
         }
 
-        return StringUtils.fixInlineCodeblockDirection(get(map, actualQuery.split("\\."), false));
+        throw new LangKeyNotFoundException("Missing i18n key " + actualQuery);
     }
 
     public String withRoot(String root, String query) {
@@ -0,0 +1,104 @@
+package net.readonly.utils.exports;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.SummaryMetricFamily;
+
+/**
+ * Exports command latency split by command, category and phase, backed by {@link LatencyHistogram}s.
+ * <br>Percentiles are computed on scrape, so recording a phase is a map lookup and an atomic increment.
+ * To keep the label cardinality bounded, only the first {@link #MAX_COMMANDS} command names get their own
+ * series, anything after that is reported as {@code other}.
+ */
+public class CommandLatency extends Collector {
+    public static final int MAX_COMMANDS = 256;
+    private static final String OTHER = "other";
+    private static final List<Double> QUANTILE_LIST = List.of(0.5, 0.9, 0.99, 0.999);
+    private static final double[] QUANTILES = QUANTILE_LIST.stream().mapToDouble(Double::doubleValue).toArray();
+
+    public enum Phase {
+        PREFIX, RESOLVE, PARSE, PERMISSION, HANDLER, REPLY, TOTAL;
+
+        private final String label = name().toLowerCase();
+    }
+
+    // Command -> category -> phase. A command only has one category, but the overflow series mixes all of them.
+    private final ConcurrentMap<String, ConcurrentMap<String, Map<Phase, LatencyHistogram>>> histograms = new ConcurrentHashMap<>();
+
+    public void record(String command, String category, Phase phase, long nanos) {
+        histograms(command, category).get(phase).record(nanos);
+    }
+
+    /**
+     * Records several phases of the same command at once.
+     *
+     * @param command The command name.
+     * @param category The category of the command.
+     * @param nanos Time spent on each phase, indexed by {@link Phase#ordinal()}. Phases below zero are skipped.
+     */
+    public void record(String command, String category, long[] nanos) {
+        var histograms = histograms(command, category);
+        for (var phase : Phase.values()) {
+            if (nanos[phase.ordinal()] >= 0) {
+                histograms.get(phase).record(nanos[phase.ordinal()]);
+            }
+        }
+    }
+
+    private Map<Phase, LatencyHistogram> histograms(String command, String category) {
+        var categories = histograms.get(command);
+        if (categories == null) {
+            // Racy, a few extra commands can slip past the limit, but never an unbounded amount.
+            categories = histograms.computeIfAbsent(histograms.size() >= MAX_COMMANDS ? OTHER : command, k -> new ConcurrentHashMap<>());
+        }
+
+        return categories.computeIfAbsent(category, k -> {
+            var map = new EnumMap<Phase, LatencyHistogram>(Phase.class);
+            for (var phase : Phase.values()) {
+                map.put(phase, new LatencyHistogram());
+            }
+
+            return map;
+        });
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        var latency = new SummaryMetricFamily(
+                "command_phase_latency_seconds",
+                "Time spent on each phase of a command, percentiles over the last " + LatencyHistogram.WINDOW_SECONDS + " to "
+                        + LatencyHistogram.WINDOW_SECONDS * 2 + " seconds.",
+                List.of("command", "category", "phase"),
+                QUANTILE_LIST
+        );
+
+        for (var command : histograms.entrySet()) {
+            for (var category : command.getValue().entrySet()) {
+                for (var phase : category.getValue().entrySet()) {
+                    var histogram = phase.getValue();
+                    if (histogram.count() == 0) {
+                        continue;
+                    }
+
+                    var values = histogram.quantiles(QUANTILES);
+                    var quantiles = new ArrayList<Double>(values.length);
+                    for (var value : values) {
+                        quantiles.add(value);
+                    }
+
+                    latency.addMetric(List.of(command.getKey(), category.getKey(), phase.getKey().label),
+                            histogram.count(), histogram.sumSeconds(), quantiles
+                    );
+                }
+            }
+        }
+
+        return List.of(latency);
+    }
+}
@@ -28,7 +28,8 @@ public class DiscordLatencyExports {
 
     private static final Gauge GATEWAY_LATENCY = Gauge.build()
             .name("gateway_latency")
-            .help("Gateway latency in seconds")
+            .help("Gateway latency in seconds, by shard")
+            .labelNames("shard")
             .create();
     private static final Gauge REST_LATENCY = Gauge.build()
             .name("rest_latency")
@@ -40,15 +41,22 @@ public class DiscordLatencyExports {
         REST_LATENCY.register();
 
         ReadOnlyBot.instance().getExecutorService().scheduleAtFixedRate(() -> {
-        	JDA jda = ReadOnlyBot.instance().getJDA();
-        	
-        	var gatewayPing = jda.getGatewayPing();
-            if (gatewayPing >= 0) {
-                GATEWAY_LATENCY.labels(String.valueOf(jda.getSelfUser().getId()))
-                        .set(gatewayPing / MILLISECONDS_PER_SECOND);
+            for (JDA shard : ReadOnlyBot.instance().getCore().shards()) {
+                var id = String.valueOf(shard.getShardInfo().getShardId());
+                var gatewayPing = shard.getGatewayPing();
+                if (gatewayPing >= 0) {
+                    GATEWAY_LATENCY.labels(id).set(gatewayPing / MILLISECONDS_PER_SECOND);
+                }
+
+                Metrics.SHARD_GUILDS.labels(id).set(shard.getGuildCache().size());
+                Metrics.SHARD_CONNECTED.labels(id).set(shard.getStatus() == JDA.Status.CONNECTED ? 1 : 0);
             }
-            jda.getRestPing().queue(restPing -> REST_LATENCY.set(restPing / MILLISECONDS_PER_SECOND));
 
+            // Every shard shares the same REST API, no need to ask more than once.
+            JDA jda = ReadOnlyBot.instance().getJDA();
+            if (jda != null) {
+                jda.getRestPing().queue(restPing -> REST_LATENCY.set(restPing / MILLISECONDS_PER_SECOND));
+            }
         }, 0, Prometheus.UPDATE_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
     }
 }
@@ -0,0 +1,137 @@
+package net.readonly.utils.exports;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear latency histogram, in the spirit of HdrHistogram, with a fixed memory footprint.
+ * <br>Values are recorded in microseconds into buckets that are 1/16th of a power of two wide, so any percentile
+ * read back is within ~6% of the real value, from 1µs to ~17 minutes. Recording is a couple of shifts and one
+ * atomic increment, with no allocation and no locking.
+ * <br>Percentiles cover a sliding window of one to two {@link #WINDOW_SECONDS} periods, so they follow regressions
+ * instead of averaging them away since startup. The count and sum are cumulative, as Prometheus expects.
+ */
+public final class LatencyHistogram {
+    public static final long WINDOW_SECONDS = 60;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_BITS = 30;
+    private static final int BUCKETS = (MAX_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(WINDOW_SECONDS);
+
+    // Two windows, the current one and the one before it, picked by the parity of the window number.
+    private final AtomicLongArray[] windows = {new AtomicLongArray(BUCKETS), new AtomicLongArray(BUCKETS)};
+    private final long[] windowNumbers = {-1, -1};
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+
+    public void record(long nanos) {
+        var micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        count.increment();
+        sumMicros.add(micros);
+        window(System.nanoTime() / WINDOW_NANOS).incrementAndGet(index(micros));
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double sumSeconds() {
+        return sumMicros.sum() / 1_000_000d;
+    }
+
+    /**
+     * Reads several percentiles at once from the last one to two windows.
+     *
+     * @param quantiles Quantiles to read, between 0 and 1, in ascending order.
+     *
+     * @return The value of each quantile in seconds, or NaN for all of them if nothing was recorded recently.
+     */
+    public double[] quantiles(double... quantiles) {
+        var current = System.nanoTime() / WINDOW_NANOS;
+        var counts = new long[BUCKETS];
+        long total = 0;
+        for (int w = 0; w < 2; w++) {
+            long number;
+            synchronized (this) {
+                number = windowNumbers[w];
+            }
+
+            if (number != current && number != current - 1) {
+                continue;
+            }
+
+            var window = windows[w];
+            for (int i = 0; i < BUCKETS; i++) {
+                var c = window.get(i);
+                counts[i] += c;
+                total += c;
+            }
+        }
+
+        var values = new double[quantiles.length];
+        if (total == 0) {
+            Arrays.fill(values, Double.NaN);
+            return values;
+        }
+
+        long seen = 0;
+        int q = 0;
+        for (int i = 0; i < BUCKETS && q < quantiles.length; i++) {
+            seen += counts[i];
+            while (q < quantiles.length && seen >= Math.ceil(quantiles[q] * total)) {
+                values[q++] = highestEquivalent(i) / 1_000_000d;
+            }
+        }
+
+        return values;
+    }
+
+    private AtomicLongArray window(long number) {
+        var slot = (int) (number & 1);
+        // Racy read, only used to skip the lock on the common path.
+        if (windowNumbers[slot] != number) {
+            synchronized (this) {
+                if (windowNumbers[slot] != number) {
+                    var window = windows[slot];
+                    for (int i = 0; i < BUCKETS; i++) {
+                        window.set(i, 0);
+                    }
+
+                    windowNumbers[slot] = number;
+                }
+            }
+        }
+
+        return windows[slot];
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+
+        var magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        if (magnitude >= MAX_BITS) {
+            return BUCKETS - 1;
+        }
+
+        var shift = magnitude - SUB_BUCKET_BITS;
+        var sub = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Highest value that lands on the bucket, what percentiles report.
+    static long highestEquivalent(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        var shift = index / SUB_BUCKETS - 1;
+        var sub = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub) << shift) + (1L << shift) - 1;
+    }
+}
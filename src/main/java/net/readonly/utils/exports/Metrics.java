@@ -7,8 +7,46 @@ import io.prometheus.client.Histogram;
 public class Metrics {
     public static final ThreadPoolCollector THREAD_POOL_COLLECTOR = new ThreadPoolCollector().register();
     public static final Histogram COMMAND_LATENCY = Histogram.build()
-            .name("command_latency")
-            .help("Time it takes for a command to process.")
+            .name("command_latency_seconds")
+            .help("Time it takes for a command to process. Replaces command_latency, which was in milliseconds.")
+            .register();
+    public static final CommandLatency COMMAND_PHASE_LATENCY = new CommandLatency().register();
+    public static final Histogram REPLY_LATENCY = Histogram.build()
+            .name("command_reply_latency_seconds")
+            .help("Time from a command message being received to its reply being acknowledged by Discord, by stage.")
+            .labelNames("stage")
+            .buckets(0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30)
+            .register();
+    public static final Histogram EXECUTOR_QUEUE_WAIT = Histogram.build()
+            .name("executor_queue_wait_seconds")
+            .help("Time tasks spend queued before an executor picks them up.")
+            .labelNames("executor")
+            .register();
+    public static final Histogram EXECUTOR_EXECUTION_TIME = Histogram.build()
+            .name("executor_execution_seconds")
+            .help("Time tasks spend running on an executor.")
+            .labelNames("executor")
+            .register();
+    public static final Counter EXECUTOR_SHED_TASKS = Counter.build()
+            .name("executor_shed_tasks")
+            .help("Tasks rejected by a full executor, by shed policy")
+            .labelNames("executor", "policy")
+            .register();
+    public static final Gauge LANE_QUEUE_DEPTH = Gauge.build()
+            .name("lane_queue_depth")
+            .help("Tasks waiting on guild lanes")
+            .register();
+    public static final Gauge LANE_ACTIVE = Gauge.build()
+            .name("lane_active")
+            .help("Guild lanes with tasks queued or running")
+            .register();
+    public static final Counter LANE_TASKS = Counter.build()
+            .name("lane_tasks")
+            .help("Tasks ran by guild lanes")
+            .register();
+    public static final Counter LANE_SHED_TASKS = Counter.build()
+            .name("lane_shed_tasks")
+            .help("Tasks dropped because their guild lane was full or the executor couldn't take it")
             .register();
     public static final Counter COMMAND_COUNTER = Counter.build()
             .name("commands")
@@ -24,6 +62,16 @@ public class Metrics {
             .name("guilds")
             .help("Guild Count")
             .register();
+    public static final Gauge SHARD_GUILDS = Gauge.build()
+            .name("shard_guilds")
+            .help("Guilds on each shard of this node")
+            .labelNames("shard")
+            .register();
+    public static final Gauge SHARD_CONNECTED = Gauge.build()
+            .name("shard_connected")
+            .help("Whether each shard of this node is connected (1) or not (0)")
+            .labelNames("shard")
+            .register();
     public static final Gauge USER_COUNT = Gauge.build()
             .name("users")
             .help("User Count")
@@ -36,8 +84,46 @@ public class Metrics {
             .name("http_ratelimit_requests")
             .help("429 HTTP Requests (JDA)")
             .register();
+    public static final Counter GATEWAY_EVENTS = Counter.build()
+            .name("gateway_events")
+            .help("Events dispatched by JDA, by type and whether any listener subscribed to them")
+            .labelNames("type", "handled")
+            .register();
     public static final Counter RECEIVED_MESSAGES = Counter.build()
             .name("messages_received")
             .help("Received messages (all users + bots)")
             .register();
+    public static final Counter GUILD_CACHE_HITS = Counter.build()
+            .name("guild_cache_hits")
+            .help("Guild lookups served from the cache")
+            .register();
+    public static final Counter GUILD_CACHE_MISSES = Counter.build()
+            .name("guild_cache_misses")
+            .help("Guild lookups that had to be loaded from rethink")
+            .register();
+    public static final Counter GUILD_CACHE_EVICTIONS = Counter.build()
+            .name("guild_cache_evictions")
+            .help("Guilds evicted from the cache by size or expiry")
+            .register();
+    public static final Counter GUILD_CACHE_WRITES = Counter.build()
+            .name("guild_cache_writes")
+            .help("Guild saves by outcome (flushed to rethink, coalesced into a pending write, retried or dropped after failing)")
+            .labelNames("type")
+            .register();
+    public static final Gauge GUILD_CACHE_PENDING_WRITES = Gauge.build()
+            .name("guild_cache_pending_writes")
+            .help("Guild saves waiting to be flushed to rethink")
+            .register();
+    public static final Gauge GUILD_BOOTSTRAP_PROGRESS = Gauge.build()
+            .name("guild_bootstrap_progress")
+            .help("Ratio of guilds checked against rethink on startup (0 to 1)")
+            .register();
+    public static final Counter GUILD_BOOTSTRAP_INSERTED = Counter.build()
+            .name("guild_bootstrap_inserted")
+            .help("Missing guilds inserted to rethink on startup")
+            .register();
+    public static final Gauge GUILD_BOOTSTRAP_DURATION = Gauge.build()
+            .name("guild_bootstrap_duration_seconds")
+            .help("Time it took to check and insert every guild on startup")
+            .register();
 }
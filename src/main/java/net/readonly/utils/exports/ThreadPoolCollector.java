@@ -12,14 +12,28 @@ import java.util.concurrent.TimeUnit;
 
 import io.prometheus.client.Collector;
 import io.prometheus.client.GaugeMetricFamily;
+import net.readonly.core.executor.CommandExecutor;
 
 public class ThreadPoolCollector extends Collector {
     private final ConcurrentMap<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+    // Command executors that aren't thread pools, only their active and queued tasks are known.
+    private final ConcurrentMap<String, CommandExecutor> commandExecutors = new ConcurrentHashMap<>();
 
     public ThreadPoolExecutor remove(String name) {
+        commandExecutors.remove(name);
         return executors.remove(name);
     }
 
+    public boolean add(String name, CommandExecutor executor) {
+        Objects.requireNonNull(name, "Name may not be null");
+        Objects.requireNonNull(executor, "Executor may not be null");
+        if (executor instanceof ThreadPoolExecutor) {
+            return add(name, (ThreadPoolExecutor) executor);
+        }
+
+        return commandExecutors.putIfAbsent(name, executor) == null;
+    }
+
     public boolean add(String name, ThreadPoolExecutor executor) {
         Objects.requireNonNull(name, "Name may not be null");
         Objects.requireNonNull(executor, "Executor may not be null");
@@ -104,6 +118,13 @@ public class ThreadPoolCollector extends Collector {
         );
 
         list.add(taskCount);
+        GaugeMetricFamily queuedTasks = new GaugeMetricFamily(
+                "executor_queued_tasks",
+                "Approximate number of tasks waiting to run.",
+                Collections.singletonList("executor")
+        );
+
+        list.add(queuedTasks);
         for (var entry : executors.entrySet()) {
             var name = Collections.singletonList(entry.getKey());
             var executor = entry.getValue();
@@ -116,6 +137,15 @@ public class ThreadPoolCollector extends Collector {
             maximumPoolSize.addMetric(name, executor.getMaximumPoolSize());
             poolSize.addMetric(name, executor.getPoolSize());
             taskCount.addMetric(name, executor.getTaskCount());
+            queuedTasks.addMetric(name, executor.getQueue().size());
+        }
+
+        for (var entry : commandExecutors.entrySet()) {
+            var name = Collections.singletonList(entry.getKey());
+            var executor = entry.getValue();
+
+            activeCount.addMetric(name, executor.activeTasks());
+            queuedTasks.addMetric(name, executor.queuedTasks());
         }
 
         return list;
@@ -0,0 +1,195 @@
+package net.readonly.utils.tracker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * The usages of every {@link Tracker} on a {@link TrackerGroup} at a given time.
+ * <br>Snapshots can be written to a compact binary form, restored into a group after a restart with
+ * {@link TrackerGroup#restore(GroupSnapshot, Function)}, and merged with the snapshots of other nodes
+ * to rank trackers cluster-wide without moving any raw events around.
+ *
+ * <br><br>Binary format, all counters as unsigned LEB128 varints:
+ * <pre>
+ * snapshot = magic:int32 version:int8 takenAt:int64 count:varint tracker*
+ * tracker  = key:modified-utf8 second:varint total:varint minute:buffer hour:buffer day:buffer count:varint tracker*
+ * buffer   = length:varint value:varint*   (oldest first)
+ * </pre>
+ */
+public final class GroupSnapshot {
+    private static final int MAGIC = 0x52545247; // RTRG
+    private static final byte VERSION = 1;
+
+    private final long takenAt;
+    private final List<TrackerSnapshot> trackers;
+
+    GroupSnapshot(long takenAt, List<TrackerSnapshot> trackers) {
+        this.takenAt = takenAt;
+        this.trackers = Collections.unmodifiableList(trackers);
+    }
+
+    /**
+     * Returns when this snapshot was taken.
+     *
+     * @return The time this snapshot was taken, in epoch milliseconds.
+     */
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    @Nonnull
+    public List<TrackerSnapshot> getTrackers() {
+        return trackers;
+    }
+
+    /**
+     * Moves this snapshot forward in time. See {@link TrackerSnapshot#aged(long)}.
+     *
+     * @param now The time to move the snapshot to, in epoch milliseconds.
+     *
+     * @return The aged snapshot.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public GroupSnapshot agedTo(long now) {
+        var elapsed = now - takenAt;
+        if (elapsed < 1000) {
+            return this;
+        }
+
+        var aged = new ArrayList<TrackerSnapshot>(trackers.size());
+        for (var tracker : trackers) {
+            aged.add(tracker.aged(elapsed));
+        }
+
+        return new GroupSnapshot(now, aged);
+    }
+
+    /**
+     * Merges snapshots from different nodes, after aging all of them to the same time.
+     *
+     * @param snapshots The snapshots to merge.
+     * @param now The time to age every snapshot to, in epoch milliseconds.
+     *
+     * @return A snapshot with the usages of all of them.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static GroupSnapshot merge(@Nonnull Collection<GroupSnapshot> snapshots, long now) {
+        var merged = new LinkedHashMap<String, TrackerSnapshot>();
+        for (var snapshot : snapshots) {
+            for (var tracker : snapshot.agedTo(now).trackers) {
+                merged.merge(tracker.getKey(), tracker, TrackerSnapshot::merge);
+            }
+        }
+
+        return new GroupSnapshot(now, new ArrayList<>(merged.values()));
+    }
+
+    /**
+     * Ranks the top level trackers of this snapshot.
+     *
+     * @param instance The Instance to rank trackers by.
+     * @param amount The maximum amount of results.
+     *
+     * @return The ranking, keyed by the snapshot keys.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public Ranking<String> ranking(@Nonnull Instance instance, @Nonnegative int amount) {
+        var group = TrackerGroup.<String>detached();
+        group.restore(this, Function.identity());
+        return Ranking.highest(group.trackers().values(), instance, amount);
+    }
+
+    public void write(@Nonnull DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(takenAt);
+        writeVarLong(out, trackers.size());
+        for (var tracker : trackers) {
+            tracker.write(out);
+        }
+    }
+
+    @Nonnull
+    public static GroupSnapshot read(@Nonnull DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a tracker snapshot");
+        }
+
+        var version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported tracker snapshot version " + version);
+        }
+
+        var takenAt = in.readLong();
+        var count = (int) readVarLong(in);
+        if (count < 0) {
+            throw new IOException("Invalid tracker count " + count);
+        }
+
+        var trackers = new ArrayList<TrackerSnapshot>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            trackers.add(TrackerSnapshot.read(in));
+        }
+
+        return new GroupSnapshot(takenAt, trackers);
+    }
+
+    @Nonnull
+    public byte[] toBytes() {
+        var bytes = new ByteArrayOutputStream(1024);
+        try (var out = new DataOutputStream(bytes)) {
+            write(out);
+        } catch (IOException e) {
+            // Can't happen writing to memory.
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Nonnull
+    public static GroupSnapshot fromBytes(@Nonnull byte[] bytes) throws IOException {
+        return read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            var b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed varint");
+    }
+}
@@ -30,7 +30,8 @@ public interface Instance {
 
     /**
      * Returns a stream of up to {@code amount} elements from the given stream, sorted from high to low.
-     * <br>This method is equivalent to {@code all.sorted(comparator().reversed()).limit(amount)}
+     * <br>This method is equivalent to {@code all.sorted(comparator().reversed()).limit(amount)}, but keeps
+     * only {@code amount} elements around instead of sorting all of them. See {@link Ranking}.
      *
      * @param all Data to sort. Cannot be null.
      * @param amount Maximum number of elements in the returned stream.
@@ -40,12 +41,13 @@ public interface Instance {
      */
     @Nonnull
     default <K> Stream<Tracker<K>> highest(@Nonnull Stream<Tracker<K>> all, @Nonnegative int amount) {
-        return all.sorted(comparator().reversed()).limit(amount);
+        return Ranking.highest(all::iterator, this, amount).entries().stream().map(Ranking.Entry::getTracker);
     }
 
     /**
      * Returns a stream of up to {@code amount} elements from the given stream, sorted from low to high.
-     * <br>This method is equivalent to {@code all.sorted(comparator()).limit(amount)}
+     * <br>This method is equivalent to {@code all.sorted(comparator()).limit(amount)}, but keeps
+     * only {@code amount} elements around instead of sorting all of them. See {@link Ranking}.
      *
      * @param all Data to sort. Cannot be null.
      * @param amount Maximum number of elements in the returned stream.
@@ -55,6 +57,6 @@ public interface Instance {
      */
     @Nonnull
     default <K> Stream<Tracker<K>> lowest(@Nonnull Stream<Tracker<K>> all, @Nonnegative int amount) {
-        return all.sorted(comparator()).limit(amount);
+        return Ranking.lowest(all::iterator, this, amount).entries().stream().map(Ranking.Entry::getTracker);
     }
 }
@@ -0,0 +1,182 @@
+package net.readonly.utils.tracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * The top (or bottom) trackers of an {@link Instance}, along with the total of all trackers, taken at a given time.
+ * <br>Built in a single pass with a heap bounded to the wanted amount of results, so it costs O(n log k) instead of
+ * sorting every tracker, and every tracker's amount is only computed once.
+ *
+ * @param <K> The type of the key used to identify the trackers.
+ */
+public final class Ranking<K> {
+    private static final Comparator<Entry<?>> BY_AMOUNT = Comparator.comparingLong(Entry::getAmount);
+
+    private final Instance instance;
+    private final long total;
+    private final int capacity;
+    private final List<Entry<K>> entries;
+
+    private Ranking(Instance instance, long total, int capacity, List<Entry<K>> entries) {
+        this.instance = instance;
+        this.total = total;
+        this.capacity = capacity;
+        this.entries = entries;
+    }
+
+    /**
+     * Ranks the trackers with the highest uses in the given Instance.
+     *
+     * @param trackers Trackers to rank. Cannot be null.
+     * @param instance The Instance to rank trackers by.
+     * @param amount Maximum number of results.
+     * @param <K> Type of the keys for the provided trackers.
+     *
+     * @return Up to {@code amount} trackers, sorted from high to low.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <K> Ranking<K> highest(@Nonnull Iterable<Tracker<K>> trackers, @Nonnull Instance instance, @Nonnegative int amount) {
+        return rank(trackers, instance, amount, true);
+    }
+
+    /**
+     * Ranks the trackers with the lowest uses in the given Instance.
+     *
+     * @param trackers Trackers to rank. Cannot be null.
+     * @param instance The Instance to rank trackers by.
+     * @param amount Maximum number of results.
+     * @param <K> Type of the keys for the provided trackers.
+     *
+     * @return Up to {@code amount} trackers, sorted from low to high.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <K> Ranking<K> lowest(@Nonnull Iterable<Tracker<K>> trackers, @Nonnull Instance instance, @Nonnegative int amount) {
+        return rank(trackers, instance, amount, false);
+    }
+
+    private static <K> Ranking<K> rank(Iterable<Tracker<K>> trackers, Instance instance, int amount, boolean highest) {
+        // The heap head is the worst of the kept entries, the one to replace when a better one shows up.
+        var heap = new PriorityQueue<Entry<K>>(Math.max(1, amount), highest ? BY_AMOUNT : BY_AMOUNT.reversed());
+        long total = 0;
+        for (var tracker : trackers) {
+            var value = instance.amount(tracker);
+            total += value;
+            if (amount == 0) {
+                continue;
+            }
+
+            if (heap.size() < amount) {
+                heap.add(new Entry<>(tracker, value));
+            } else if (highest ? value > heap.peek().amount : value < heap.peek().amount) {
+                heap.poll();
+                heap.add(new Entry<>(tracker, value));
+            }
+        }
+
+        // The heap hands out the lowest first, so it's drained from the back.
+        var sorted = new ArrayList<Entry<K>>(heap.size());
+        while (!heap.isEmpty()) {
+            sorted.add(heap.poll());
+        }
+
+        Collections.reverse(sorted);
+        return new Ranking<>(instance, total, amount, Collections.unmodifiableList(sorted));
+    }
+
+    /**
+     * Returns the Instance the trackers were ranked by.
+     *
+     * @return The Instance used.
+     */
+    @Nonnull
+    public Instance getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the sum of the usages of every tracker, ranked or not.
+     *
+     * @return The total usages in the Instance.
+     */
+    @Nonnegative
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Returns the maximum amount of entries this ranking was built for.
+     *
+     * @return The capacity of this ranking.
+     */
+    @Nonnegative
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the ranked trackers, best first.
+     *
+     * @return An unmodifiable list of entries. Never null.
+     */
+    @Nonnull
+    public List<Entry<K>> entries() {
+        return entries;
+    }
+
+    /**
+     * Returns the first {@code amount} entries of this ranking, sharing its total.
+     *
+     * @param amount Maximum number of entries.
+     *
+     * @return A ranking with up to {@code amount} entries.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public Ranking<K> limit(@Nonnegative int amount) {
+        if (amount >= entries.size()) {
+            return this;
+        }
+
+        return new Ranking<>(instance, total, amount, entries.subList(0, amount));
+    }
+
+    /**
+     * A ranked tracker, with its amount at the time it was ranked.
+     *
+     * @param <K> The type of the key used to identify the tracker.
+     */
+    public static final class Entry<K> {
+        private final Tracker<K> tracker;
+        private final long amount;
+
+        private Entry(Tracker<K> tracker, long amount) {
+            this.tracker = tracker;
+            this.amount = amount;
+        }
+
+        @Nonnull
+        public Tracker<K> getTracker() {
+            return tracker;
+        }
+
+        @Nonnull
+        public K getKey() {
+            return tracker.getKey();
+        }
+
+        @Nonnegative
+        public long getAmount() {
+            return amount;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package net.readonly.utils.tracker;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -13,14 +15,16 @@ import net.readonly.utils.tracker.ringbuffer.RingBuffer;
 
 /**
  * Tracks usages of a given key for the last second, minute, hour, day and total usages.
+ * <br>The second and total counters are striped ({@link LongAdder}), so threads incrementing the same tracker
+ * don't fight over a single cache line. They're only summed when read, or when the second is rolled.
  *
  * @param <K> The type of the key used to identify this {@link Tracker} in it's group.
  *
  * @see TrackerGroup
  */
 public class Tracker<K> {
-    protected final AtomicLong second = new AtomicLong();
-    protected final AtomicLong total = new AtomicLong();
+    protected final LongAdder second = new LongAdder();
+    protected final LongAdder total = new LongAdder();
     protected final ConcurrentHashMap<K, Tracker<K>> children = new ConcurrentHashMap<>();
     protected final TrackerGroup<K> group;
     protected final Tracker<K> parent;
@@ -96,8 +100,8 @@ public class Tracker<K> {
      */
     public void increment(int amount) {
         if(recursiveIncrement && parent != null) parent.increment(amount);
-        second.addAndGet(amount);
-        total.addAndGet(amount);
+        second.add(amount);
+        total.add(amount);
     }
 
     /**
@@ -129,7 +133,7 @@ public class Tracker<K> {
      */
     @Nonnegative
     public long secondUsages() {
-        return second.get();
+        return second.sum();
     }
 
     /**
@@ -150,7 +154,7 @@ public class Tracker<K> {
      */
     @Nonnegative
     public long minuteUsages() {
-        return minute.sum() + second.get();
+        return minute.sum() + second.sum();
     }
 
     /**
@@ -171,7 +175,7 @@ public class Tracker<K> {
      */
     @Nonnegative
     public long hourlyUsages() {
-        return hour.sumLast(59) + minute.sum() + second.get();
+        return hour.sumLast(59) + minute.sum() + second.sum();
     }
 
     /**
@@ -192,7 +196,7 @@ public class Tracker<K> {
      */
     @Nonnegative
     public long dailyUsages() {
-        return day.sumLast(23) + hour.sumLast(59) + minute.sum() + second.get();
+        return day.sumLast(23) + hour.sumLast(59) + minute.sum() + second.sum();
     }
 
     /**
@@ -202,30 +206,92 @@ public class Tracker<K> {
      */
     @Nonnegative
     public long totalUsages() {
-        return total.get();
+        return total.sum();
+    }
+
+    /**
+     * Takes a snapshot of this tracker and its children.
+     *
+     * @param keyName Turns keys into the strings stored on the snapshot.
+     *
+     * @return The snapshot.
+     */
+    @Nonnull
+    public TrackerSnapshot snapshot(@Nonnull Function<? super K, String> keyName) {
+        var childSnapshots = new ArrayList<TrackerSnapshot>(children.size());
+        for (var child : children.values()) {
+            childSnapshots.add(child.snapshot(keyName));
+        }
+
+        return new TrackerSnapshot(keyName.apply(key), second.sum(), total.sum(),
+                minute.toArray(), hour.toArray(), day.toArray(), childSnapshots
+        );
+    }
+
+    /**
+     * Adds the usages on a snapshot to this tracker, and its children to the matching children.
+     * <br>Parents are left alone even with recursive increments, since their own snapshots already count these usages.
+     *
+     * @param snapshot The snapshot to add.
+     * @param keyParser Turns the keys stored on the snapshot back into keys. Children mapped to null are skipped.
+     */
+    public void restore(@Nonnull TrackerSnapshot snapshot, @Nonnull Function<String, ? extends K> keyParser) {
+        second.add(snapshot.getSecond());
+        total.add(snapshot.getTotal());
+        minute.add(snapshot.minute());
+        hour.add(snapshot.hour());
+        day.add(snapshot.day());
+        for (var childSnapshot : snapshot.getChildren()) {
+            var childKey = keyParser.apply(childSnapshot.getKey());
+            if (childKey != null) {
+                child(childKey).restore(childSnapshot, keyParser);
+            }
+        }
+    }
+
+    /**
+     * Rolls this tracker and all of its children, in a single pass over the tree.
+     *
+     * @param minute Whether a minute passed, and the minute should be rolled after the second.
+     * @param hour Whether an hour passed, and the hour should be rolled after the minute.
+     */
+    protected void roll(boolean minute, boolean hour) {
+        rollSecond();
+        if (minute) {
+            rollMinute();
+        }
+
+        if (hour) {
+            rollHour();
+        }
+
+        for (var child : children.values()) {
+            child.roll(minute, hour);
+        }
     }
 
     /**
      * Clears the usages in the last second and adds to the minute, replacing the oldest entry.
+     * Doesn't touch the children, see {@link #roll(boolean, boolean)}.
      */
     protected void rollSecond() {
-        minute.put(second.getAndSet(0));
-        children.values().forEach(Tracker::rollSecond);
+        // Every cell is swapped to zero atomically, increments racing with this land on the next second instead of being lost.
+        minute.put(second.sumThenReset());
     }
 
     /**
      * Add the usages in the last minute to the hour, replacing the oldest entry.
+     * Doesn't touch the children, see {@link #roll(boolean, boolean)}.
      */
     protected void rollMinute() {
         hour.put(minute.sum());
-        children.values().forEach(Tracker::rollMinute);
     }
 
     /**
      * Add the usages in the last hour to the day, replacing the oldest entry.
+     * Doesn't touch the children, see {@link #roll(boolean, boolean)}.
      */
     protected void rollHour() {
         day.put(hour.sum());
-        children.values().forEach(Tracker::rollHour);
     }
 }
@@ -1,5 +1,6 @@
 package net.readonly.utils.tracker;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -7,6 +8,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
@@ -24,6 +26,11 @@ public class TrackerGroup<K> {
     protected final ConcurrentHashMap<K, Tracker<K>> map = new ConcurrentHashMap<>();
     protected final ScheduledExecutorService executor;
     protected final boolean recursiveIncrements;
+    // Seconds rolled so far, only touched by the roll task.
+    protected long ticks;
+    // Rankings asked for through ranking(), rebuilt after every roll. Bounded, Instances might not be enums.
+    protected final ConcurrentHashMap<Instance, Ranking<K>> rankings = new ConcurrentHashMap<>();
+    protected static final int MAX_CACHED_RANKINGS = 32;
 
     /**
      * Creates a new {@link TrackerGroup} with a given executor.
@@ -34,9 +41,25 @@ public class TrackerGroup<K> {
     public TrackerGroup(@Nonnull ScheduledExecutorService executor, boolean recursiveIncrements) {
         this.executor = Objects.requireNonNull(executor, "Executor may not be null");
         this.recursiveIncrements = recursiveIncrements;
-        executor.scheduleAtFixedRate(()->map.values().forEach(Tracker::rollSecond), 1, 1, TimeUnit.SECONDS);
-        executor.scheduleAtFixedRate(()->map.values().forEach(Tracker::rollMinute), 1, 1, TimeUnit.MINUTES);
-        executor.scheduleAtFixedRate(()->map.values().forEach(Tracker::rollHour), 1, 1, TimeUnit.HOURS);
+        executor.scheduleAtFixedRate(this::roll, 1, 1, TimeUnit.SECONDS);
+    }
+
+    // Detached groups have no executor, and are never rolled.
+    private TrackerGroup(boolean recursiveIncrements, @SuppressWarnings("unused") boolean detached) {
+        this.executor = null;
+        this.recursiveIncrements = recursiveIncrements;
+    }
+
+    /**
+     * Creates a {@link TrackerGroup} that's never rolled, to hold restored or merged snapshots.
+     *
+     * @param <K> The type of the key used to identify each tracker.
+     *
+     * @return A new detached group. Its {@link #getExecutor() executor} is null.
+     */
+    @Nonnull
+    public static <K> TrackerGroup<K> detached() {
+        return new TrackerGroup<>(false, true);
     }
 
     /**
@@ -96,9 +119,8 @@ public class TrackerGroup<K> {
     /**
      * Returns the executor used to schedule updates to trackers.
      *
-     * @return The executor used.
+     * @return The executor used, or null on {@link #detached() detached} groups.
      */
-    @Nonnull
     public ScheduledExecutorService getExecutor() {
         return executor;
     }
@@ -141,7 +163,7 @@ public class TrackerGroup<K> {
 
     /**
      * Returns the trackers with the highest uses in the given Instance.
-     * <br>This is equivalent to {@code Instance.highest(trackers().values().stream(), amount)}
+     * <br>This is equivalent to {@code ranking(Instance, amount).entries().stream().map(Ranking.Entry::getTracker)}
      *
      * @param Instance The Instance to sort trackers.
      * @param amount The maximum amount of results.
@@ -149,7 +171,33 @@ public class TrackerGroup<K> {
      * @return The highest trackers in the Instance.
      */
     public Stream<Tracker<K>> highest(Instance Instance, int amount) {
-        return Instance.highest(trackers().values().stream(), amount);
+        return ranking(Instance, amount).entries().stream().map(Ranking.Entry::getTracker);
+    }
+
+    /**
+     * Returns the trackers with the highest uses in the given Instance, along with the total of all trackers.
+     * <br>The first call for an Instance ranks the trackers right away. After that, the ranking is rebuilt once
+     * per second, right after the trackers are rolled, and calls return that snapshot without looking at any tracker.
+     *
+     * @param Instance The Instance to rank trackers by.
+     * @param amount The maximum amount of results.
+     *
+     * @return The ranking, at most a second old.
+     */
+    @Nonnull
+    public Ranking<K> ranking(@Nonnull Instance Instance, int amount) {
+        var cached = rankings.get(Instance);
+        if (cached != null && cached.capacity() >= amount) {
+            return cached.limit(amount);
+        }
+
+        var ranking = Ranking.highest(map.values(), Instance, amount);
+        if (cached != null || rankings.size() < MAX_CACHED_RANKINGS) {
+            // Racing with a roll at worst loses a bigger capacity, which gets asked for again on the next call.
+            rankings.put(Instance, ranking);
+        }
+
+        return ranking;
     }
 
     /**
@@ -167,7 +215,8 @@ public class TrackerGroup<K> {
 
     /**
      * Returns the sum of all usages in the given Instance.
-     * <br>This is equivalent to {@code trackers().values().stream().mapToLong(Instance::amount).sum()}
+     * <br>This is equivalent to {@code trackers().values().stream().mapToLong(Instance::amount).sum()}.
+     * Use {@link #ranking(Instance, int)} when the highest trackers are needed too.
      *
      * @param Instance The Instance of the wanted total.
      *
@@ -177,6 +226,56 @@ public class TrackerGroup<K> {
         return trackers().values().stream().mapToLong(Instance::amount).sum();
     }
 
+    /**
+     * Takes a snapshot of every tracker on this group.
+     *
+     * @param keyName Turns keys into the strings stored on the snapshot.
+     *
+     * @return The snapshot.
+     */
+    @Nonnull
+    public GroupSnapshot snapshot(@Nonnull Function<? super K, String> keyName) {
+        var snapshots = new ArrayList<TrackerSnapshot>(map.size());
+        for (var tracker : map.values()) {
+            snapshots.add(tracker.snapshot(keyName));
+        }
+
+        return new GroupSnapshot(System.currentTimeMillis(), snapshots);
+    }
+
+    /**
+     * Adds the usages on a snapshot to the trackers on this group, creating them if needed.
+     * <br>The snapshot is aged to the current time first, see {@link GroupSnapshot#agedTo(long)}.
+     *
+     * @param snapshot The snapshot to add.
+     * @param keyParser Turns the keys stored on the snapshot back into keys. Trackers mapped to null are skipped.
+     */
+    public void restore(@Nonnull GroupSnapshot snapshot, @Nonnull Function<String, ? extends K> keyParser) {
+        for (var tracker : snapshot.agedTo(System.currentTimeMillis()).getTrackers()) {
+            var key = keyParser.apply(tracker.getKey());
+            if (key != null) {
+                tracker(key).restore(tracker, keyParser);
+            }
+        }
+    }
+
+    /**
+     * Rolls every tracker once. Minutes and hours are rolled on the same pass as the second that completes them,
+     * instead of walking the whole tree again on separate schedules.
+     */
+    protected void roll() {
+        var tick = ++ticks;
+        var minute = tick % 60 == 0;
+        var hour = tick % 3600 == 0;
+        for (var tracker : map.values()) {
+            tracker.roll(minute, hour);
+        }
+
+        for (var ranking : rankings.values()) {
+            rankings.put(ranking.getInstance(), Ranking.highest(map.values(), ranking.getInstance(), ranking.capacity()));
+        }
+    }
+
     /**
      * Creates a new tracker for the given key.
      *
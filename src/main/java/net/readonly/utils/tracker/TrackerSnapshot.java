@@ -0,0 +1,204 @@
+package net.readonly.utils.tracker;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * The usages of a {@link Tracker} and its children at a given time, detached from any group.
+ * <br>Ring buffers are stored oldest first, the same layout as {@link net.readonly.utils.tracker.ringbuffer.RingBuffer#toArray()}.
+ *
+ * @see GroupSnapshot
+ */
+public final class TrackerSnapshot {
+    private final String key;
+    private final long second;
+    private final long total;
+    private final long[] minute;
+    private final long[] hour;
+    private final long[] day;
+    private final List<TrackerSnapshot> children;
+
+    TrackerSnapshot(String key, long second, long total, long[] minute, long[] hour, long[] day, List<TrackerSnapshot> children) {
+        this.key = key;
+        this.second = second;
+        this.total = total;
+        this.minute = minute;
+        this.hour = hour;
+        this.day = day;
+        this.children = Collections.unmodifiableList(children);
+    }
+
+    @Nonnull
+    public String getKey() {
+        return key;
+    }
+
+    @Nonnegative
+    public long getSecond() {
+        return second;
+    }
+
+    @Nonnegative
+    public long getTotal() {
+        return total;
+    }
+
+    @Nonnull
+    public List<TrackerSnapshot> getChildren() {
+        return children;
+    }
+
+    long[] minute() {
+        return minute;
+    }
+
+    long[] hour() {
+        return hour;
+    }
+
+    long[] day() {
+        return day;
+    }
+
+    /**
+     * Moves this snapshot forward in time, roughly as if the tracker had kept rolling without any new usages.
+     * <br>Each window is shifted by its own unit (seconds for the minute, minutes for the hour, hours for the day),
+     * and the total is kept. Usages still in the minute window aren't carried over to the hour one, so longer
+     * windows can come out a bit short right after a restart.
+     *
+     * @param elapsedMillis Time passed since the snapshot was taken.
+     *
+     * @return The aged snapshot, or this one if less than a second passed.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public TrackerSnapshot aged(long elapsedMillis) {
+        if (elapsedMillis < 1000) {
+            return this;
+        }
+
+        var seconds = TimeUnit.MILLISECONDS.toSeconds(elapsedMillis);
+        var agedChildren = new ArrayList<TrackerSnapshot>(children.size());
+        for (var child : children) {
+            agedChildren.add(child.aged(elapsedMillis));
+        }
+
+        // The second in progress rolled into the minute before the shift.
+        var rolledMinute = shift(minute, 1);
+        if (rolledMinute.length != 0) {
+            rolledMinute[rolledMinute.length - 1] += second;
+        }
+
+        return new TrackerSnapshot(key, 0, total,
+                shift(rolledMinute, seconds - 1), shift(hour, seconds / 60), shift(day, seconds / 3600), agedChildren
+        );
+    }
+
+    /**
+     * Adds two snapshots of the same key together, slot by slot. Children are merged by key.
+     *
+     * @param other The snapshot to add to this one. Must be aged to the same time.
+     *
+     * @return The merged snapshot.
+     */
+    @Nonnull
+    @CheckReturnValue
+    public TrackerSnapshot merge(@Nonnull TrackerSnapshot other) {
+        var merged = new LinkedHashMap<String, TrackerSnapshot>();
+        for (var child : children) {
+            merged.put(child.key, child);
+        }
+
+        for (var child : other.children) {
+            merged.merge(child.key, child, TrackerSnapshot::merge);
+        }
+
+        return new TrackerSnapshot(key, second + other.second, total + other.total,
+                add(minute, other.minute), add(hour, other.hour), add(day, other.day), new ArrayList<>(merged.values())
+        );
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeUTF(key);
+        GroupSnapshot.writeVarLong(out, second);
+        GroupSnapshot.writeVarLong(out, total);
+        writeBuffer(out, minute);
+        writeBuffer(out, hour);
+        writeBuffer(out, day);
+        GroupSnapshot.writeVarLong(out, children.size());
+        for (var child : children) {
+            child.write(out);
+        }
+    }
+
+    static TrackerSnapshot read(DataInput in) throws IOException {
+        var key = in.readUTF();
+        var second = GroupSnapshot.readVarLong(in);
+        var total = GroupSnapshot.readVarLong(in);
+        var minute = readBuffer(in);
+        var hour = readBuffer(in);
+        var day = readBuffer(in);
+        var childCount = (int) GroupSnapshot.readVarLong(in);
+        if (childCount < 0) {
+            throw new IOException("Invalid child count " + childCount);
+        }
+
+        var children = new ArrayList<TrackerSnapshot>(Math.min(childCount, 1024));
+        for (int i = 0; i < childCount; i++) {
+            children.add(read(in));
+        }
+
+        return new TrackerSnapshot(key, second, total, minute, hour, day, children);
+    }
+
+    private static void writeBuffer(DataOutput out, long[] values) throws IOException {
+        GroupSnapshot.writeVarLong(out, values.length);
+        for (var value : values) {
+            GroupSnapshot.writeVarLong(out, value);
+        }
+    }
+
+    private static long[] readBuffer(DataInput in) throws IOException {
+        var length = (int) GroupSnapshot.readVarLong(in);
+        if (length < 0 || length > 3600) {
+            throw new IOException("Invalid buffer length " + length);
+        }
+
+        var values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = GroupSnapshot.readVarLong(in);
+        }
+
+        return values;
+    }
+
+    // Drops the oldest slots, and fills the newest ones with zeroes.
+    private static long[] shift(long[] values, long amount) {
+        var shifted = new long[values.length];
+        if (amount < values.length) {
+            System.arraycopy(values, (int) amount, shifted, 0, values.length - (int) amount);
+        }
+
+        return shifted;
+    }
+
+    // Aligned on the newest slot, buffers of different sizes keep the size of the first one.
+    private static long[] add(long[] a, long[] b) {
+        var sum = a.clone();
+        for (int i = 1, amt = Math.min(a.length, b.length); i <= amt; i++) {
+            sum[sum.length - i] += b[b.length - i];
+        }
+
+        return sum;
+    }
+}
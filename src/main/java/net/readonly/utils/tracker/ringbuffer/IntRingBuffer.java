@@ -1,13 +1,24 @@
 package net.readonly.utils.tracker.ringbuffer;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.lang.invoke.VarHandle;
 
 import javax.annotation.Nonnegative;
 
+/**
+ * Ring buffer of ints, written under a lock and read lock-free. Values over an int are truncated.
+ * <br>Writes bump a sequence number before and after touching the array, so readers can tell whether a write
+ * happened while they were summing, and retry. After a few failed attempts, they take the writer lock instead.
+ * The write position is a {@code long}, it never wraps around.
+ */
 public class IntRingBuffer implements RingBuffer {
-    protected final AtomicInteger index = new AtomicInteger();
+    private static final int OPTIMISTIC_READS = 4;
+
     protected final int size;
     protected final int[] array;
+    // Odd while a write is in progress.
+    protected volatile long sequence;
+    // Amount of values ever put, the next one goes at writes % size.
+    protected long writes;
 
     public IntRingBuffer(@Nonnegative int size) {
         this.size = size;
@@ -19,9 +30,17 @@ public class IntRingBuffer implements RingBuffer {
         return size;
     }
 
+    /**
+     * Values are truncated to an int.
+     */
     @Override
-    public void put(@Nonnegative long value) {
-        array[index.getAndIncrement() % size] = (int)value;
+    public synchronized void put(@Nonnegative long value) {
+        sequence++;
+        // The volatile write above only keeps earlier stores above it, this keeps the array stores below it.
+        VarHandle.storeStoreFence();
+        array[(int) (writes % size)] = (int) value;
+        writes++;
+        sequence++;
     }
 
     @Override
@@ -31,16 +50,77 @@ public class IntRingBuffer implements RingBuffer {
 
     @Override
     public long sumLast(int amount) {
-        int nextIdx = index.get();
-        int lastIdx = (nextIdx - 1) % size;
-        long sum = 0;
-        for(int i = 0, amt = Math.min(amount, size); i < amt; i++) {
-            int idx = lastIdx - i;
-            if(idx < 0) {
-                idx += size;
+        for (int attempt = 0; attempt < OPTIMISTIC_READS; attempt++) {
+            var before = sequence;
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            var sum = sumUnsafe(amount);
+            // Keep the reads of the array above from moving below the second read of the sequence.
+            VarHandle.acquireFence();
+            if (sequence == before) {
+                return sum;
+            }
+        }
+
+        synchronized (this) {
+            return sumUnsafe(amount);
+        }
+    }
+
+    @Override
+    public long[] toArray() {
+        var values = new long[size];
+        for (int attempt = 0; attempt < OPTIMISTIC_READS; attempt++) {
+            var before = sequence;
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            copyUnsafe(values);
+            VarHandle.acquireFence();
+            if (sequence == before) {
+                return values;
             }
-            sum += array[idx];
         }
+
+        synchronized (this) {
+            copyUnsafe(values);
+            return values;
+        }
+    }
+
+    /**
+     * Values are truncated to an int, as is the sum they're added to.
+     */
+    @Override
+    public synchronized void add(long[] values) {
+        sequence++;
+        VarHandle.storeStoreFence();
+        var next = writes;
+        for (int i = 1, amt = Math.min(values.length, size); i <= amt; i++) {
+            array[(int) Math.floorMod(next - i, (long) size)] += (int) values[values.length - i];
+        }
+        sequence++;
+    }
+
+    private void copyUnsafe(long[] values) {
+        var next = writes;
+        for (int i = 0; i < size; i++) {
+            values[i] = array[(int) Math.floorMod(next + i, (long) size)];
+        }
+    }
+
+    private long sumUnsafe(int amount) {
+        var next = writes;
+        long sum = 0;
+        for (long i = 1, amt = Math.min(amount, size); i <= amt; i++) {
+            sum += array[(int) Math.floorMod(next - i, (long) size)];
+        }
+
         return sum;
     }
 }
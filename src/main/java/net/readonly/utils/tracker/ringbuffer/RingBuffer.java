@@ -2,6 +2,7 @@ package net.readonly.utils.tracker.ringbuffer;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
 
 public interface RingBuffer {
     /**
@@ -41,4 +42,22 @@ public interface RingBuffer {
     @CheckReturnValue
     @Nonnegative
     long sumLast(@Nonnegative int amount);
+
+    /**
+     * Returns a copy of the elements in this buffer, taken from a single state of it.
+     *
+     * @return The elements, oldest first. Always {@link #size() size} long.
+     */
+    @CheckReturnValue
+    @Nonnull
+    long[] toArray();
+
+    /**
+     * Adds the given values to the elements in this buffer, without moving it forward.
+     * <br>The last value is added to the newest element, the one before it to the element before that, and so on.
+     * Values older than the oldest element are ignored.
+     *
+     * @param values The values to add, oldest first.
+     */
+    void add(@Nonnull long[] values);
 }
@@ -0,0 +1,122 @@
+package net.readonly.utils.tracker;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The binary format of usage snapshots, and the aging and merging done on them before they're ranked.
+ */
+public class GroupSnapshotTest {
+    @Test
+    public void roundTrip() throws IOException {
+        var original = snapshot(new Random(7), 1_600_000_000_000L);
+        var decoded = GroupSnapshot.fromBytes(original.toBytes());
+
+        assertEquals(original.getTakenAt(), decoded.getTakenAt());
+        assertEquals(original.getTrackers().size(), decoded.getTrackers().size());
+        for (int i = 0; i < original.getTrackers().size(); i++) {
+            assertTrackerEquals(original.getTrackers().get(i), decoded.getTrackers().get(i));
+        }
+    }
+
+    @Test
+    public void roundTripLargeValues() throws IOException {
+        // Varints have to hold anything a counter can reach.
+        var large = tracker("large", Long.MAX_VALUE, Long.MAX_VALUE, new long[] { 0, 127, 128, 16_383, 16_384, -1 });
+        var decoded = GroupSnapshot.fromBytes(new GroupSnapshot(0, List.of(large)).toBytes());
+        assertTrackerEquals(large, decoded.getTrackers().get(0));
+    }
+
+    @Test
+    public void aging() {
+        var minute = new long[60];
+        minute[59] = 5;
+        var hour = new long[60];
+        hour[59] = 7;
+        var tracker = new TrackerSnapshot("aging", 3, 15, minute, hour, new long[24], List.of());
+
+        var oneSecond = tracker.aged(1_000);
+        assertEquals(0, oneSecond.getSecond(), "second in progress wasn't rolled over");
+        assertEquals(5, oneSecond.minute()[58]);
+        assertEquals(3, oneSecond.minute()[59]);
+        assertEquals(7, oneSecond.hour()[59], "hour window shifted before a minute passed");
+        assertEquals(15, oneSecond.getTotal(), "total changed when aging");
+
+        // The second in progress rolled in a second after the snapshot, so it's the oldest slot a minute later.
+        var oneMinute = tracker.aged(60_000);
+        assertEquals(3, oneMinute.minute()[0]);
+        assertEquals(3, Arrays.stream(oneMinute.minute()).sum());
+        assertEquals(7, oneMinute.hour()[58]);
+        assertEquals(0, oneMinute.hour()[59]);
+        assertEquals(0, Arrays.stream(tracker.aged(61_000).minute()).sum(), "minute window didn't empty after a minute");
+
+        assertSame(tracker, tracker.aged(999), "aging under a second should be a no-op");
+    }
+
+    @Test
+    public void merge() {
+        var a = new GroupSnapshot(10_000, List.of(tracker("help", 1, 10, new long[] { 1, 2 })));
+        var b = new GroupSnapshot(10_000, List.of(tracker("help", 2, 20, new long[] { 3, 4 }), tracker("stats", 0, 5, new long[] { 0, 5 })));
+        var merged = GroupSnapshot.merge(List.of(a, b), 10_000);
+
+        assertEquals(2, merged.getTrackers().size(), "merge didn't union keys");
+        var help = merged.getTrackers().get(0);
+        assertEquals("help", help.getKey());
+        assertEquals(30, help.getTotal());
+        assertEquals(3, help.getSecond());
+        assertArrayEquals(new long[] { 4, 6 }, help.minute());
+    }
+
+    private static GroupSnapshot snapshot(Random random, long takenAt) {
+        var trackers = new ArrayList<TrackerSnapshot>();
+        for (int i = 0; i < 50; i++) {
+            var children = new ArrayList<TrackerSnapshot>();
+            for (int c = 0, amount = random.nextInt(3); c < amount; c++) {
+                children.add(new TrackerSnapshot("sub" + c, random.nextInt(5), random.nextInt(100_000),
+                        values(random, 60), values(random, 60), values(random, 24), List.of()
+                ));
+            }
+
+            trackers.add(new TrackerSnapshot("command" + i, random.nextInt(5), random.nextInt(1_000_000),
+                    values(random, 60), values(random, 60), values(random, 24), children
+            ));
+        }
+
+        return new GroupSnapshot(takenAt, trackers);
+    }
+
+    private static long[] values(Random random, int length) {
+        var values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextInt(10) == 0 ? random.nextInt(1_000) : 0;
+        }
+
+        return values;
+    }
+
+    private static TrackerSnapshot tracker(String key, long second, long total, long[] minute) {
+        return new TrackerSnapshot(key, second, total, minute, new long[60], new long[24], List.of());
+    }
+
+    private static void assertTrackerEquals(TrackerSnapshot expected, TrackerSnapshot actual) {
+        assertEquals(expected.getKey(), actual.getKey());
+        assertEquals(expected.getSecond(), actual.getSecond(), expected.getKey());
+        assertEquals(expected.getTotal(), actual.getTotal(), expected.getKey());
+        assertArrayEquals(expected.minute(), actual.minute(), expected.getKey());
+        assertArrayEquals(expected.hour(), actual.hour(), expected.getKey());
+        assertArrayEquals(expected.day(), actual.day(), expected.getKey());
+        assertEquals(expected.getChildren().size(), actual.getChildren().size(), expected.getKey());
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            assertTrackerEquals(expected.getChildren().get(i), actual.getChildren().get(i));
+        }
+    }
+}